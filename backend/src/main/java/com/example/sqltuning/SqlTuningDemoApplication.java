@@ -3,9 +3,11 @@ package com.example.sqltuning;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @MapperScan("com.example.sqltuning.mapper")
+@EnableScheduling
 public class SqlTuningDemoApplication {
 
     public static void main(String[] args) {
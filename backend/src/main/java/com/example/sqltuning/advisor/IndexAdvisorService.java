@@ -0,0 +1,341 @@
+package com.example.sqltuning.advisor;
+
+import com.example.sqltuning.dto.IndexAdvisorReport;
+import com.example.sqltuning.dto.IndexAdvisorReport.IndexSuggestion;
+import com.example.sqltuning.dto.IndexAdvisorReport.StatementAdvice;
+import com.example.sqltuning.metrics.SqlMetricsRegistry;
+import com.example.sqltuning.metrics.SqlMetricsRegistry.WorkloadStatement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 実行されたSQLのEXPLAINから不足しているインデックスを提案するインデックスアドバイザー
+ *
+ * SqlMetricsRegistryに記録された各SELECTの実行例をEXPLAINし、フルテーブルスキャン（type=ALL）、
+ * インデックス未使用（key=NULL）、Using filesort / Using temporary を検出する。
+ * 問題のあるテーブルについてWHERE/ORDER BYの列から複合インデックスの候補を作り、
+ * MySQL 8の不可視インデックスとして一時的に作成して、同じ接続でだけ
+ * use_invisible_indexes=on にしたEXPLAINで実際に使われるか・読み取り行数が減るかを確認する。
+ * 検証用のインデックスは確認後すぐに削除する。
+ */
+@Service
+@Slf4j
+public class IndexAdvisorService {
+
+    private static final String INDEX_PREFIX = "idx_advisor_";
+    private static final int MAX_IDENTIFIER_LENGTH = 64;
+
+    private final SqlMetricsRegistry sqlMetricsRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final int defaultMaxStatements;
+    private final boolean validateWithInvisibleIndexes;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public IndexAdvisorService(SqlMetricsRegistry sqlMetricsRegistry,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${advisor.max-statements:20}") int defaultMaxStatements,
+                               @Value("${advisor.validate-with-invisible-indexes:true}") boolean validateWithInvisibleIndexes) {
+        this.sqlMetricsRegistry = sqlMetricsRegistry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultMaxStatements = defaultMaxStatements;
+        this.validateWithInvisibleIndexes = validateWithInvisibleIndexes;
+    }
+
+    public IndexAdvisorReport run(Integer maxStatements) {
+        if (!running.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "インデックスアドバイザーを実行中です");
+        }
+        try {
+            int limit = maxStatements != null && maxStatements > 0 ? maxStatements : defaultMaxStatements;
+            List<WorkloadStatement> workload = sqlMetricsRegistry.workload().stream()
+                    .filter(statement -> isSelect(statement.sample().sql()))
+                    .limit(limit)
+                    .toList();
+            // 不可視インデックスの検証は use_invisible_indexes を変更した同じ接続で行う必要がある
+            return jdbcTemplate.execute((ConnectionCallback<IndexAdvisorReport>) connection ->
+                    analyze(connection, workload));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private IndexAdvisorReport analyze(Connection connection, List<WorkloadStatement> workload) throws SQLException {
+        long startTime = System.currentTimeMillis();
+        SchemaInfo schema = new SchemaInfo(connection);
+        IndexAdvisorReport report = new IndexAdvisorReport();
+        report.setAnalyzedAt(LocalDateTime.now());
+        report.setAnalyzedStatements(workload.size());
+
+        for (WorkloadStatement statement : workload) {
+            try {
+                StatementAdvice advice = analyzeStatement(connection, schema, statement);
+                if (advice != null) {
+                    report.getStatements().add(advice);
+                }
+            } catch (SQLException | IllegalStateException e) {
+                log.warn("インデックスアドバイザー: {} の解析に失敗しました: {}", statement.statementId(), e.getMessage());
+            }
+        }
+
+        long endTime = System.currentTimeMillis();
+        log.info("インデックスアドバイザー実行時間: {}ms, 解析: {}件, 問題あり: {}件",
+                (endTime - startTime), workload.size(), report.getStatements().size());
+        return report;
+    }
+
+    private StatementAdvice analyzeStatement(Connection connection, SchemaInfo schema,
+                                             WorkloadStatement statement) throws SQLException {
+        String sql = statement.sample().sql();
+        List<Object> parameters = statement.sample().parameters();
+        List<Map<String, Object>> baseline = explain(connection, sql, parameters);
+
+        List<String> issues = new ArrayList<>();
+        Set<String> flaggedTables = new LinkedHashSet<>();
+        IndexCandidateExtractor extractor = new IndexCandidateExtractor(sql, schema::hasColumn);
+        for (Map<String, Object> row : baseline) {
+            List<String> rowIssues = detectIssues(row);
+            issues.addAll(rowIssues);
+            String table = extractor.resolveTable(Objects.toString(row.get("table"), null));
+            if (!rowIssues.isEmpty() && table != null) {
+                flaggedTables.add(table);
+            }
+        }
+        if (issues.isEmpty()) {
+            return null;
+        }
+
+        StatementAdvice advice = new StatementAdvice();
+        advice.setStatementId(statement.statementId());
+        advice.setExecutions(statement.executions());
+        advice.setTotalTimeMs(Math.round(statement.totalTimeMs() * 1000) / 1000.0);
+        advice.setSql(sql);
+        advice.setIssues(issues);
+        long baselineRows = estimateRowsExamined(baseline);
+        advice.setEstimatedRowsExamined(baselineRows);
+        boolean baselineFilesort = hasExtra(baseline, "Using filesort");
+
+        for (String table : flaggedTables) {
+            for (List<String> columns : extractor.candidates(table)) {
+                if (schema.isCoveredByExistingIndex(table, columns)) {
+                    continue;
+                }
+                advice.getSuggestions().add(
+                        validate(connection, table, columns, sql, parameters, baselineRows, baselineFilesort));
+            }
+        }
+
+        long bestSaving = advice.getSuggestions().stream()
+                .filter(IndexSuggestion::isRecommended)
+                .mapToLong(IndexSuggestion::getRowsSaved)
+                .max()
+                .orElse(0);
+        advice.setRowsSavedPerExecution(bestSaving);
+        advice.setRowsSavedTotal(bestSaving * statement.executions());
+        return advice;
+    }
+
+    private IndexSuggestion validate(Connection connection, String table, List<String> columns,
+                                     String sql, List<Object> parameters,
+                                     long baselineRows, boolean baselineFilesort) {
+        String indexName = indexName(table, columns);
+        String columnList = columns.stream().map(column -> "`" + column + "`").collect(Collectors.joining(", "));
+
+        IndexSuggestion suggestion = new IndexSuggestion();
+        suggestion.setTable(table);
+        suggestion.setColumns(columns);
+        suggestion.setDdl("CREATE INDEX `" + indexName + "` ON `" + table + "` (" + columnList + ")");
+        if (!validateWithInvisibleIndexes) {
+            suggestion.setNote("不可視インデックスによる検証は無効です");
+            return suggestion;
+        }
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("ALTER TABLE `" + table + "` ADD INDEX `" + indexName + "` (" + columnList + ") INVISIBLE,"
+                    + " ALGORITHM=INPLACE, LOCK=NONE");
+            try {
+                ddl.execute("SET SESSION optimizer_switch = 'use_invisible_indexes=on'");
+                List<Map<String, Object>> plan = explain(connection, sql, parameters);
+                long rows = estimateRowsExamined(plan);
+                suggestion.setValidated(true);
+                suggestion.setUsedByOptimizer(plan.stream().anyMatch(row -> indexName.equals(row.get("key"))));
+                suggestion.setEstimatedRowsExamined(rows);
+                suggestion.setRowsSaved(Math.max(0, baselineRows - rows));
+                suggestion.setRemovesFilesort(baselineFilesort && !hasExtra(plan, "Using filesort"));
+                suggestion.setRecommended(suggestion.isUsedByOptimizer()
+                        && (suggestion.getRowsSaved() > 0 || suggestion.isRemovesFilesort()));
+                if (!suggestion.isUsedByOptimizer()) {
+                    suggestion.setNote("オプティマイザーはこのインデックスを選択しませんでした");
+                }
+            } finally {
+                ddl.execute("SET SESSION optimizer_switch = 'use_invisible_indexes=off'");
+                ddl.execute("ALTER TABLE `" + table + "` DROP INDEX `" + indexName + "`");
+            }
+        } catch (SQLException e) {
+            suggestion.setNote("検証に失敗しました: " + e.getMessage());
+            log.warn("インデックスアドバイザー: {} の検証に失敗しました: {}", indexName, e.getMessage());
+        }
+        return suggestion;
+    }
+
+    private static List<Map<String, Object>> explain(Connection connection, String sql,
+                                                     List<Object> parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return new RowMapperResultSetExtractor<>(new ColumnMapRowMapper()).extractData(resultSet);
+            }
+        }
+    }
+
+    private static List<String> detectIssues(Map<String, Object> row) {
+        String table = Objects.toString(row.get("table"), null);
+        if (table == null || table.startsWith("<")) {
+            // 派生テーブル・一時テーブルはインデックスの対象外
+            return List.of();
+        }
+        List<String> issues = new ArrayList<>();
+        String type = Objects.toString(row.get("type"), "");
+        String extra = Objects.toString(row.get("Extra"), "");
+        if ("ALL".equals(type)) {
+            issues.add(table + ": フルテーブルスキャン（type=ALL, rows=" + row.get("rows") + "）");
+        } else if (row.get("key") == null && !type.isEmpty()) {
+            issues.add(table + ": インデックス未使用（key=NULL, type=" + type + "）");
+        }
+        if (extra.contains("Using filesort")) {
+            issues.add(table + ": Using filesort");
+        }
+        if (extra.contains("Using temporary")) {
+            issues.add(table + ": Using temporary");
+        }
+        return issues;
+    }
+
+    /**
+     * EXPLAINのrowsとfilteredから、ネステッドループ結合で読み取る行数を見積もる
+     * （同じidの行は結合順に並ぶため、前の行の絞り込み後の行数を掛け合わせる）
+     */
+    private static long estimateRowsExamined(List<Map<String, Object>> plan) {
+        Map<String, List<Map<String, Object>>> bySelect = new LinkedHashMap<>();
+        for (Map<String, Object> row : plan) {
+            bySelect.computeIfAbsent(Objects.toString(row.get("id")), key -> new ArrayList<>()).add(row);
+        }
+        double total = 0;
+        for (List<Map<String, Object>> rows : bySelect.values()) {
+            double fanout = 1;
+            for (Map<String, Object> row : rows) {
+                double examined = toDouble(row.get("rows"), 0);
+                total += fanout * examined;
+                fanout *= Math.max(1, examined * toDouble(row.get("filtered"), 100) / 100);
+            }
+        }
+        return Math.round(total);
+    }
+
+    private static boolean hasExtra(List<Map<String, Object>> plan, String text) {
+        return plan.stream().anyMatch(row -> Objects.toString(row.get("Extra"), "").contains(text));
+    }
+
+    private static double toDouble(Object value, double defaultValue) {
+        return value instanceof Number number ? number.doubleValue() : defaultValue;
+    }
+
+    private static boolean isSelect(String sql) {
+        String head = sql.stripLeading().toUpperCase(Locale.ROOT);
+        return head.startsWith("SELECT") || head.startsWith("WITH");
+    }
+
+    private static String indexName(String table, List<String> columns) {
+        String name = INDEX_PREFIX + table + "_" + String.join("_", columns);
+        return name.length() > MAX_IDENTIFIER_LENGTH ? name.substring(0, MAX_IDENTIFIER_LENGTH) : name;
+    }
+
+    /**
+     * 解析中に参照するテーブルの列と既存インデックス（information_schemaから遅延読み込み）
+     */
+    private static class SchemaInfo {
+        private final Connection connection;
+        private final Map<String, Set<String>> columns = new HashMap<>();
+        private final Map<String, List<List<String>>> indexes = new HashMap<>();
+
+        SchemaInfo(Connection connection) {
+            this.connection = connection;
+        }
+
+        boolean hasColumn(String table, String column) {
+            return columns.computeIfAbsent(table, this::loadColumns).contains(column);
+        }
+
+        /**
+         * 候補の列の並びが既存インデックスの先頭部分に含まれていればtrue
+         */
+        boolean isCoveredByExistingIndex(String table, List<String> candidate) {
+            return indexes.computeIfAbsent(table, this::loadIndexes).stream()
+                    .anyMatch(index -> index.size() >= candidate.size()
+                            && index.subList(0, candidate.size()).equals(candidate));
+        }
+
+        private Set<String> loadColumns(String table) {
+            Set<String> result = new HashSet<>();
+            query("SELECT COLUMN_NAME FROM information_schema.COLUMNS"
+                            + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                    table, rs -> result.add(rs.getString(1).toLowerCase(Locale.ROOT)));
+            return result;
+        }
+
+        private List<List<String>> loadIndexes(String table) {
+            Map<String, List<String>> result = new LinkedHashMap<>();
+            query("SELECT INDEX_NAME, COLUMN_NAME FROM information_schema.STATISTICS"
+                            + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?"
+                            + " ORDER BY INDEX_NAME, SEQ_IN_INDEX",
+                    table, rs -> result.computeIfAbsent(rs.getString(1), key -> new ArrayList<>())
+                            .add(rs.getString(2).toLowerCase(Locale.ROOT)));
+            return new ArrayList<>(result.values());
+        }
+
+        private void query(String sql, String table, RowConsumer consumer) {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, table);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        consumer.accept(resultSet);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("テーブル情報の取得に失敗しました: " + table, e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+        void accept(ResultSet resultSet) throws SQLException;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.sqltuning.advisor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SQLのWHERE/ON/ORDER BY/GROUP BYから複合インデックスの候補を組み立てる
+ *
+ * 完全なSQLパーサーではなく、このアプリのマッパーが発行する程度のSQLを
+ * 正規表現で解析する。候補は「等価条件の列 → 範囲条件の列」「等価条件の列 → ORDER BY/GROUP BYの列」
+ * の順に並べる。誤った候補はIndexAdvisorServiceの不可視インデックスによる検証で除外される。
+ */
+class IndexCandidateExtractor {
+
+    private static final Set<String> KEYWORDS = Set.of(
+            "WHERE", "JOIN", "LEFT", "RIGHT", "INNER", "OUTER", "CROSS", "ON", "GROUP", "ORDER",
+            "LIMIT", "USING", "NATURAL", "STRAIGHT_JOIN", "HAVING", "UNION", "FOR", "AND", "OR");
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern TABLE_REF = Pattern.compile(
+            "\\b(?:FROM|JOIN)\\s+`?(\\w+)`?(?:\\s+(?:AS\\s+)?`?(\\w+)`?)?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COLUMN_EQUALS_COLUMN = Pattern.compile(
+            "`?(\\w+)`?\\.`?(\\w+)`?\\s*=\\s*`?(\\w+)`?\\.`?(\\w+)`?");
+    private static final Pattern COMPARISON = Pattern.compile(
+            "(?:`?(\\w+)`?\\.)?`?(\\w+)`?\\s*(<=>|<=|>=|<>|!=|=|<|>|\\bIN\\s*\\(|\\bBETWEEN\\b|\\bLIKE\\b)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern LEADING_WILDCARD = Pattern.compile(
+            "^\\s*(?:CONCAT\\s*\\(\\s*)?'%", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_BY = Pattern.compile(
+            "\\bORDER\\s+BY\\s+(.+?)(?:\\bLIMIT\\b|\\bFOR\\b|$)", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern GROUP_BY = Pattern.compile(
+            "\\bGROUP\\s+BY\\s+(.+?)(?:\\bHAVING\\b|\\bORDER\\b|\\bLIMIT\\b|\\)|$)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern SORT_ITEM = Pattern.compile(
+            "^(?:`?(\\w+)`?\\.)?`?(\\w+)`?(?:\\s+(ASC|DESC))?$", Pattern.CASE_INSENSITIVE);
+
+    private final String sql;
+    // 別名（または表名）→ 表名
+    private final Map<String, String> aliases = new LinkedHashMap<>();
+    // 表名 → 列名を持つかどうかの判定（information_schemaから）
+    private final BiPredicate<String, String> hasColumn;
+    private final Map<String, Set<String>> equalityColumns = new LinkedHashMap<>();
+    private final Map<String, Set<String>> rangeColumns = new LinkedHashMap<>();
+    private final Map<String, List<String>> orderColumns = new LinkedHashMap<>();
+    private final Map<String, List<String>> groupColumns = new LinkedHashMap<>();
+
+    IndexCandidateExtractor(String sql, BiPredicate<String, String> hasColumn) {
+        // リテラルの中身は解析対象外（先頭が%のリテラルだけは前方一致でない目印として残す）
+        this.sql = STRING_LITERAL.matcher(sql).replaceAll(match ->
+                match.group().startsWith("'%") ? "'%'" : "''");
+        this.hasColumn = hasColumn;
+        parseTables();
+        parsePredicates();
+        orderColumns.putAll(parseSortColumns(ORDER_BY));
+        groupColumns.putAll(parseSortColumns(GROUP_BY));
+    }
+
+    /**
+     * EXPLAINのtable列（別名または表名）から実テーブル名を返す（派生テーブルなどはnull）
+     */
+    String resolveTable(String explainTable) {
+        if (explainTable == null) {
+            return null;
+        }
+        return aliases.get(explainTable.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 指定テーブルのインデックス候補（列の並び）を返す
+     */
+    List<List<String>> candidates(String table) {
+        List<String> equality = new ArrayList<>(equalityColumns.getOrDefault(table, Set.of()));
+        Set<List<String>> candidates = new LinkedHashSet<>();
+
+        List<String> withRange = new ArrayList<>(equality);
+        rangeColumns.getOrDefault(table, Set.of()).stream()
+                .filter(column -> !equality.contains(column))
+                .findFirst()
+                .ifPresent(withRange::add);
+        candidates.add(withRange);
+
+        for (List<String> sortColumns : List.of(
+                orderColumns.getOrDefault(table, List.of()),
+                groupColumns.getOrDefault(table, List.of()))) {
+            if (!sortColumns.isEmpty()) {
+                List<String> withSort = new ArrayList<>(equality);
+                sortColumns.stream().filter(column -> !withSort.contains(column)).forEach(withSort::add);
+                candidates.add(withSort);
+            }
+        }
+        candidates.removeIf(List::isEmpty);
+        return new ArrayList<>(candidates);
+    }
+
+    private void parseTables() {
+        Matcher matcher = TABLE_REF.matcher(sql);
+        while (matcher.find()) {
+            String table = matcher.group(1).toLowerCase(Locale.ROOT);
+            aliases.put(table, table);
+            String alias = matcher.group(2);
+            if (alias != null && !KEYWORDS.contains(alias.toUpperCase(Locale.ROOT))) {
+                aliases.put(alias.toLowerCase(Locale.ROOT), table);
+            }
+        }
+    }
+
+    private void parsePredicates() {
+        // 結合条件（a.x = b.y）は両側の列を等価条件として扱う
+        Matcher join = COLUMN_EQUALS_COLUMN.matcher(sql);
+        while (join.find()) {
+            addColumn(equalityColumns, join.group(1), join.group(2));
+            addColumn(equalityColumns, join.group(3), join.group(4));
+        }
+
+        Matcher matcher = COMPARISON.matcher(sql);
+        while (matcher.find()) {
+            String operator = matcher.group(3).toUpperCase(Locale.ROOT).replaceAll("\\s", "");
+            if (operator.equals("<>") || operator.equals("!=")) {
+                continue;
+            }
+            if (operator.equals("LIKE") && LEADING_WILDCARD.matcher(sql.substring(matcher.end())).find()) {
+                // 中間一致・後方一致はインデックスを使えない
+                continue;
+            }
+            boolean equality = operator.equals("=") || operator.equals("<=>") || operator.startsWith("IN(");
+            addColumn(equality ? equalityColumns : rangeColumns, matcher.group(1), matcher.group(2));
+        }
+    }
+
+    private Map<String, List<String>> parseSortColumns(Pattern clause) {
+        Matcher matcher = clause.matcher(sql);
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        String lastClause = null;
+        while (matcher.find()) {
+            lastClause = matcher.group(1);
+        }
+        if (lastClause == null) {
+            return result;
+        }
+        String table = null;
+        String direction = null;
+        List<String> columns = new ArrayList<>();
+        for (String item : lastClause.trim().split("\\s*,\\s*")) {
+            Matcher sortItem = SORT_ITEM.matcher(item.trim());
+            if (!sortItem.matches()) {
+                return result;
+            }
+            String itemDirection = sortItem.group(3) == null ? "ASC" : sortItem.group(3).toUpperCase(Locale.ROOT);
+            String itemTable = resolveColumnTable(sortItem.group(1), sortItem.group(2));
+            // 1つのテーブルの列だけで、並び順の向きがそろっている場合のみインデックスで賄える
+            if (itemTable == null || (table != null && !table.equals(itemTable))
+                    || (direction != null && !direction.equals(itemDirection))) {
+                return result;
+            }
+            table = itemTable;
+            direction = itemDirection;
+            columns.add(sortItem.group(2).toLowerCase(Locale.ROOT));
+        }
+        result.put(table, columns);
+        return result;
+    }
+
+    private void addColumn(Map<String, Set<String>> target, String qualifier, String column) {
+        String table = resolveColumnTable(qualifier, column);
+        if (table != null) {
+            target.computeIfAbsent(table, key -> new LinkedHashSet<>()).add(column.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * 列の所属テーブルを求める。修飾なしの場合は、その列を持つテーブルが1つだけのときに限る
+     */
+    private String resolveColumnTable(String qualifier, String column) {
+        if (column.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        String columnName = column.toLowerCase(Locale.ROOT);
+        if (qualifier != null) {
+            String table = aliases.get(qualifier.toLowerCase(Locale.ROOT));
+            return table != null && hasColumn.test(table, columnName) ? table : null;
+        }
+        List<String> owners = aliases.values().stream()
+                .distinct()
+                .filter(table -> hasColumn.test(table, columnName))
+                .toList();
+        return owners.size() == 1 ? owners.get(0) : null;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.sqltuning.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * バイナリ形式のレスポンス（Acceptヘッダーによるコンテントネゴシエーション）
+ *
+ * Accept: application/cbor または application/x-jackson-smile を指定すると、
+ * JSONと同じ設定（日時の形式など）のObjectMapperでバイナリエンコードしたレスポンスを返す。
+ * Smileは2回目以降のフィールド名・短い文字列値を参照で書くため、行数の多い一覧ほど小さくなる。
+ *
+ * 同じURLでもAcceptによって本文が変わるため、全レスポンスに Vary: Accept を付け、
+ * ETagにはformatOf()で求めた形式名を含める（JSONのETagでCBORの304を返さないように）。
+ */
+@Configuration
+public class BinaryEncodingConfig {
+
+    // Accept: */* の場合は先頭（JSON）が選ばれる（Spring Bootのコンバーターの並び順と同じ）
+    private static final Map<MediaType, String> FORMATS = new LinkedHashMap<>();
+
+    static {
+        FORMATS.put(MediaType.APPLICATION_JSON, "json");
+        FORMATS.put(MediaType.APPLICATION_CBOR, "cbor");
+        FORMATS.put(new MediaType("application", "x-jackson-smile"), "smile");
+    }
+
+    /**
+     * Acceptヘッダーから選ばれるレスポンスの形式名（json / cbor / smile）
+     * いずれにも一致しない場合（406になる）はjsonを返す
+     */
+    public static String formatOf(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return "json";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            MimeTypeUtils.sortBySpecificity(accepted);
+        } catch (InvalidMediaTypeException | InvalidMimeTypeException e) {
+            return "json";
+        }
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            for (Map.Entry<MediaType, String> format : FORMATS.entrySet()) {
+                if (mediaType.isCompatibleWith(format.getKey())) {
+                    return format.getValue();
+                }
+            }
+        }
+        return "json";
+    }
+
+    /**
+     * 全レスポンスに Vary: Accept を付ける（共有キャッシュがJSONの本文をCBORの要求に返さないように）
+     */
+    @Bean
+    public OncePerRequestFilter varyAcceptFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                filterChain.doFilter(request, response);
+            }
+        };
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory smileFactory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(smileFactory).build());
+    }
+}
@@ -1,10 +1,17 @@
 package com.example.sqltuning.controller;
 
+import com.example.sqltuning.dto.BatchLookupRequest;
+import com.example.sqltuning.dto.BatchLookupResponse;
+import com.example.sqltuning.dto.PageResponse;
 import com.example.sqltuning.entity.Actor;
 import com.example.sqltuning.service.ActorService;
+import com.example.sqltuning.service.TableVersionService;
+import com.example.sqltuning.support.SingleFlight;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,15 +22,48 @@ import java.util.List;
 public class ActorController {
 
     private final ActorService actorService;
+    private final TableVersionService tableVersionService;
+    // 同じ検索の同時リクエストは1回の実行にまとめる
+    private final SingleFlight singleFlight;
 
     @GetMapping
-    public ResponseEntity<List<Actor>> getAllActors() {
-        return ResponseEntity.ok(actorService.getAllActors());
+    public ResponseEntity<List<?>> getAllActors(@RequestParam(required = false) String fields, WebRequest request) {
+        String etag = tableVersionService.etag("actors", request, "actor");
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag)
+                .body(fields == null ? actorService.getAllActors() : actorService.getAllActors(fields));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<?>> getActorsPage(
+            @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) String token,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        String etag = tableVersionService.etag("actors-page", request, "actor");
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(fields == null
+                ? actorService.getActorsPage(after, token, limit)
+                : actorService.getActorsPage(after, token, limit, fields));
     }
 
     @GetMapping("/search")
     public ResponseEntity<List<Actor>> searchActors(@RequestParam String name) {
-        return ResponseEntity.ok(actorService.searchActorsByName(name));
+        return ResponseEntity.ok(singleFlight.execute("actors.search",
+                () -> actorService.searchActorsByName(name), name));
+    }
+
+    /**
+     * IDリストで一括取得（GET /actors/{id} をIDの数だけ呼ぶ代わりに IN (...) でまとめて取得）
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchLookupResponse<Actor>> getActorsByIds(@RequestBody BatchLookupRequest request) {
+        return ResponseEntity.ok(actorService.getActorsByIds(request.getIds()));
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,24 @@
+package com.example.sqltuning.controller;
+
+import com.example.sqltuning.advisor.IndexAdvisorService;
+import com.example.sqltuning.dto.IndexAdvisorReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/advisor")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class AdvisorController {
+
+    private final IndexAdvisorService indexAdvisorService;
+
+    /**
+     * 実行済みのSQLを解析してインデックスを提案（不可視インデックスで検証）
+     */
+    @PostMapping("/run")
+    public ResponseEntity<IndexAdvisorReport> run(@RequestParam(required = false) Integer maxStatements) {
+        return ResponseEntity.ok(indexAdvisorService.run(maxStatements));
+    }
+}
@@ -3,9 +3,12 @@ package com.example.sqltuning.controller;
 import com.example.sqltuning.dto.LoginRequest;
 import com.example.sqltuning.dto.LoginResponse;
 import com.example.sqltuning.security.JwtTokenProvider;
+import com.example.sqltuning.security.PasswordVerificationExecutor;
 import com.example.sqltuning.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -13,6 +16,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -23,12 +29,31 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
     private final UserService userService;
+    private final PasswordVerificationExecutor passwordVerificationExecutor;
+
+    private static final int LOGIN_RETRY_AFTER_SECONDS = 1;
 
+    /**
+     * ログイン（パスワード照合は専用スレッドプールで実行）
+     *
+     * 照合待ちのキューが満杯の場合は 503 と Retry-After を返す。
+     */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest loginRequest) {
+        log.info("ログイン試行: {}", loginRequest.getUsername());
         try {
-            log.info("ログイン試行: {}", loginRequest.getUsername());
+            return passwordVerificationExecutor.submit(() -> authenticate(loginRequest));
+        } catch (RejectedExecutionException e) {
+            log.warn("ログイン処理が混雑しているため拒否しました: {}", loginRequest.getUsername());
+            ResponseEntity<?> busy = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(LOGIN_RETRY_AFTER_SECONDS))
+                    .body(new LoginResponse(null, null, "ログイン処理が混雑しています。しばらくしてから再試行してください"));
+            return CompletableFuture.completedFuture(busy);
+        }
+    }
 
+    private ResponseEntity<?> authenticate(LoginRequest loginRequest) {
+        try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             loginRequest.getUsername(),
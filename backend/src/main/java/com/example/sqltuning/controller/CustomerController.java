@@ -1,11 +1,17 @@
 package com.example.sqltuning.controller;
 
 import com.example.sqltuning.dto.CustomerResponse;
+import com.example.sqltuning.dto.PageResponse;
+import com.example.sqltuning.dto.SummaryRefreshResponse;
 import com.example.sqltuning.entity.Customer;
 import com.example.sqltuning.service.CustomerService;
+import com.example.sqltuning.service.CustomerSummaryService;
+import com.example.sqltuning.service.TableVersionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,6 +22,8 @@ import java.util.List;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final CustomerSummaryService customerSummaryService;
+    private final TableVersionService tableVersionService;
 
     /**
      * 全顧客を取得（遅いバージョン - 過度なJOIN）
@@ -33,6 +41,57 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.getAllCustomersFast());
     }
 
+    /**
+     * 顧客をページ単位で取得（キーセットページネーション、If-None-Matchが一致すれば304）
+     */
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<?>> getCustomersPage(
+            @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) String token,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        String etag = tableVersionService.etag("customers-page", request, "customer");
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(fields == null
+                ? customerService.getCustomersPage(after, token, limit)
+                : customerService.getCustomersPage(after, token, limit, fields));
+    }
+
+    /**
+     * 住所付きの顧客一覧（サマリーテーブルから取得、countryで国を絞り込み）
+     */
+    @GetMapping("/with-address/summary")
+    public ResponseEntity<PageResponse<Customer>> getCustomersWithAddressSummary(
+            @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) String token,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String country) {
+        return ResponseEntity.ok(customerSummaryService.getSummaryPage(after, token, limit, country));
+    }
+
+    /**
+     * 住所付きの顧客一覧（4テーブルJOIN - 比較用）
+     */
+    @GetMapping("/with-address/live")
+    public ResponseEntity<PageResponse<Customer>> getCustomersWithAddressLive(
+            @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) String token,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String country) {
+        return ResponseEntity.ok(customerSummaryService.getLivePage(after, token, limit, country));
+    }
+
+    /**
+     * サマリーテーブルに前回以降の変更を反映（初回は全件）
+     */
+    @PostMapping("/with-address/summary/refresh")
+    public ResponseEntity<SummaryRefreshResponse> refreshCustomerSummary() {
+        return ResponseEntity.ok(customerSummaryService.refresh());
+    }
+
     /**
      * メールで顧客を検索
      */
@@ -0,0 +1,35 @@
+package com.example.sqltuning.controller;
+
+import com.example.sqltuning.diagnostics.SlowQueryLog;
+import com.example.sqltuning.dto.SlowQueryResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/diagnostics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class DiagnosticsController {
+
+    private final SlowQueryLog slowQueryLog;
+
+    /**
+     * しきい値を超えたSQLとEXPLAIN結果（新しい順）
+     */
+    @GetMapping("/slow-queries")
+    public ResponseEntity<List<SlowQueryResponse>> getSlowQueries() {
+        return ResponseEntity.ok(slowQueryLog.snapshot());
+    }
+
+    /**
+     * スロークエリの記録をクリア
+     */
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<String> clearSlowQueries() {
+        slowQueryLog.clear();
+        return ResponseEntity.ok("スロークエリの記録をクリアしました");
+    }
+}
@@ -1,11 +1,23 @@
 package com.example.sqltuning.controller;
 
+import com.example.sqltuning.dto.BatchLookupRequest;
+import com.example.sqltuning.dto.BatchLookupResponse;
+import com.example.sqltuning.dto.CreateIndexRequest;
 import com.example.sqltuning.dto.FilmResponse;
+import com.example.sqltuning.dto.IndexJobResponse;
+import com.example.sqltuning.dto.PageResponse;
 import com.example.sqltuning.entity.Film;
 import com.example.sqltuning.service.FilmService;
+import com.example.sqltuning.service.IndexManagementService;
+import com.example.sqltuning.service.TableVersionService;
+import com.example.sqltuning.support.SingleFlight;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,14 +27,57 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000")
 public class FilmController {
 
+    private static final String TITLE_INDEX_NAME = "idx_film_title";
+    private static final String FULLTEXT_INDEX_NAME = "idx_film_fulltext";
+
     private final FilmService filmService;
+    private final TableVersionService tableVersionService;
+    private final IndexManagementService indexManagementService;
+    // 同じ検索の同時リクエストは1回の実行にまとめる
+    private final SingleFlight singleFlight;
 
     /**
-     * 全映画を取得
+     * 全映画を取得（If-None-Matchが一致すれば304）
+     * fields（例: filmId,title,rating）を指定した場合はそのカラムだけをSELECTする
      */
     @GetMapping
-    public ResponseEntity<List<Film>> getAllFilms() {
-        return ResponseEntity.ok(filmService.getAllFilms());
+    public ResponseEntity<List<?>> getAllFilms(@RequestParam(required = false) String fields, WebRequest request) {
+        String etag = tableVersionService.etag("films", request, "film");
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag)
+                .body(fields == null ? filmService.getAllFilms() : filmService.getAllFilms(fields));
+    }
+
+    /**
+     * 映画をページ単位で取得（キーセットページネーション、If-None-Matchが一致すれば304）
+     */
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<?>> getFilmsPage(
+            @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) String token,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        String etag = tableVersionService.etag("films-page", request, "film");
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(fields == null
+                ? filmService.getFilmsPage(after, token, limit)
+                : filmService.getFilmsPage(after, token, limit, fields));
+    }
+
+    /**
+     * 全映画をストリーミング取得（NDJSON - 1行1映画）
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllFilms() {
+        StreamingResponseBody body = filmService::streamAllFilms;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
@@ -30,7 +85,8 @@ public class FilmController {
      */
     @GetMapping("/search/slow")
     public ResponseEntity<FilmResponse> searchFilmsSlow(@RequestParam String title) {
-        return ResponseEntity.ok(filmService.searchFilmsByTitleSlow(title));
+        return ResponseEntity.ok(singleFlight.execute("films.search.slow",
+                () -> filmService.searchFilmsByTitleSlow(title), title));
     }
 
     /**
@@ -38,7 +94,42 @@ public class FilmController {
      */
     @GetMapping("/search/fast")
     public ResponseEntity<FilmResponse> searchFilmsFast(@RequestParam String title) {
-        return ResponseEntity.ok(filmService.searchFilmsByTitleFast(title));
+        return ResponseEntity.ok(singleFlight.execute("films.search.fast",
+                () -> filmService.searchFilmsByTitleFast(title), title));
+    }
+
+    /**
+     * タイトルで部分一致検索（トライグラムインデックス使用）
+     */
+    @GetMapping("/search/indexed")
+    public ResponseEntity<FilmResponse> searchFilmsIndexed(
+            @RequestParam String title,
+            @RequestParam(defaultValue = "false") boolean includeDescription) {
+        return ResponseEntity.ok(singleFlight.execute("films.search.indexed",
+                () -> filmService.searchFilmsByTitleIndexed(title, includeDescription), title, includeDescription));
+    }
+
+    /**
+     * タイトル・説明で部分一致検索（FULLTEXTインデックス使用、関連度順、pageは0始まり）
+     */
+    @GetMapping("/search/fulltext")
+    public ResponseEntity<FilmResponse> searchFilmsFulltext(
+            @RequestParam String keyword,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer limit) {
+        // 検索に使う正規化済みの条件をそのままキーにする
+        FilmService.FulltextQuery query = FilmService.FulltextQuery.of(keyword, page, limit);
+        return ResponseEntity.ok(singleFlight.execute("films.search.fulltext",
+                () -> filmService.searchFilmsFulltext(query), query));
+    }
+
+    /**
+     * トライグラムインデックスを再構築
+     */
+    @PostMapping("/search/indexed/rebuild")
+    public ResponseEntity<String> rebuildTrigramIndex() {
+        filmService.rebuildTrigramIndex();
+        return ResponseEntity.ok("トライグラムインデックスを再構築しました");
     }
 
     /**
@@ -49,6 +140,14 @@ public class FilmController {
         return ResponseEntity.ok(filmService.getFilmsWithLanguageSlow());
     }
 
+    /**
+     * 言語情報付き映画取得（バッチローダー使用 - IN句で一括取得）
+     */
+    @GetMapping("/with-language/batched")
+    public ResponseEntity<FilmResponse> getFilmsWithLanguageBatched() {
+        return ResponseEntity.ok(filmService.getFilmsWithLanguageBatched());
+    }
+
     /**
      * 言語情報付き映画取得（速いバージョン - JOIN使用）
      */
@@ -73,6 +172,22 @@ public class FilmController {
         return ResponseEntity.ok(filmService.getFilmsComplexFast(minLength));
     }
 
+    /**
+     * 複雑な条件での検索（集計テーブル使用 - 出演者数を事前計算）
+     */
+    @GetMapping("/complex/precomputed")
+    public ResponseEntity<FilmResponse> getFilmsComplexPrecomputed(@RequestParam(defaultValue = "90") Integer minLength) {
+        return ResponseEntity.ok(filmService.getFilmsComplexPrecomputed(minLength));
+    }
+
+    /**
+     * IDリストで一括取得（GET /films/{id} をIDの数だけ呼ぶ代わりに IN (...) でまとめて取得）
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchLookupResponse<Film>> getFilmsByIds(@RequestBody BatchLookupRequest request) {
+        return ResponseEntity.ok(filmService.getFilmsByIds(request.getIds()));
+    }
+
     /**
      * IDで映画を取得
      */
@@ -86,20 +201,45 @@ public class FilmController {
     }
 
     /**
-     * タイトルカラムにインデックスを作成
+     * タイトルカラムにインデックスを作成（/indexes と同じオンラインDDLの非同期ジョブ、進捗は /indexes/jobs/{jobId}）
      */
     @PostMapping("/index/title/create")
-    public ResponseEntity<String> createTitleIndex() {
-        filmService.createTitleIndex();
-        return ResponseEntity.ok("インデックスを作成しました");
+    public ResponseEntity<IndexJobResponse> createTitleIndex() {
+        CreateIndexRequest request = new CreateIndexRequest();
+        request.setTable("film");
+        request.setIndexName(TITLE_INDEX_NAME);
+        request.setColumns(List.of("title"));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(indexManagementService.createIndex(request));
     }
 
     /**
-     * タイトルカラムのインデックスを削除
+     * タイトルカラムのインデックスを削除（オンラインDDLの非同期ジョブ）
      */
     @DeleteMapping("/index/title/delete")
-    public ResponseEntity<String> dropTitleIndex() {
-        filmService.dropTitleIndex();
-        return ResponseEntity.ok("インデックスを削除しました");
+    public ResponseEntity<IndexJobResponse> dropTitleIndex() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(indexManagementService.dropIndex("film", TITLE_INDEX_NAME));
+    }
+
+    /**
+     * タイトル・説明にFULLTEXTインデックス（ngramパーサー）を作成（非同期ジョブ、最初の1つはテーブルの再構築を伴う）
+     */
+    @PostMapping("/index/fulltext/create")
+    public ResponseEntity<IndexJobResponse> createFulltextIndex() {
+        CreateIndexRequest request = new CreateIndexRequest();
+        request.setTable("film");
+        request.setIndexName(FULLTEXT_INDEX_NAME);
+        request.setColumns(List.of("title", "description"));
+        request.setFulltext(true);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(indexManagementService.createIndex(request));
+    }
+
+    /**
+     * FULLTEXTインデックスを削除（非同期ジョブ）
+     */
+    @DeleteMapping("/index/fulltext/delete")
+    public ResponseEntity<IndexJobResponse> dropFulltextIndex() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(indexManagementService.dropIndex("film", FULLTEXT_INDEX_NAME));
     }
 }
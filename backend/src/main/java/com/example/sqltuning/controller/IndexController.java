@@ -0,0 +1,72 @@
+package com.example.sqltuning.controller;
+
+import com.example.sqltuning.dto.CreateIndexRequest;
+import com.example.sqltuning.dto.IndexInfoResponse;
+import com.example.sqltuning.dto.IndexJobResponse;
+import com.example.sqltuning.service.IndexManagementService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/indexes")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class IndexController {
+
+    private final IndexManagementService indexManagementService;
+
+    /**
+     * テーブルのインデックス一覧（可視/不可視を含む）
+     */
+    @GetMapping
+    public ResponseEntity<List<IndexInfoResponse>> getIndexes(@RequestParam String table) {
+        return ResponseEntity.ok(indexManagementService.getIndexes(table));
+    }
+
+    /**
+     * インデックスの作成（オンラインDDLの非同期ジョブ）
+     */
+    @PostMapping
+    public ResponseEntity<IndexJobResponse> createIndex(@RequestBody CreateIndexRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(indexManagementService.createIndex(request));
+    }
+
+    /**
+     * インデックスの削除（オンラインDDLの非同期ジョブ）
+     */
+    @DeleteMapping("/{table}/{indexName}")
+    public ResponseEntity<IndexJobResponse> dropIndex(@PathVariable String table, @PathVariable String indexName) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(indexManagementService.dropIndex(table, indexName));
+    }
+
+    /**
+     * インデックスの可視/不可視の切り替え
+     */
+    @PutMapping("/{table}/{indexName}/visibility")
+    public ResponseEntity<String> setVisibility(@PathVariable String table,
+                                                @PathVariable String indexName,
+                                                @RequestParam boolean visible) {
+        indexManagementService.setVisibility(table, indexName, visible);
+        return ResponseEntity.ok(visible ? "インデックスを可視にしました" : "インデックスを不可視にしました");
+    }
+
+    /**
+     * インデックスジョブの一覧（新しい順）
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<List<IndexJobResponse>> getJobs() {
+        return ResponseEntity.ok(indexManagementService.getJobs());
+    }
+
+    /**
+     * インデックスジョブの状態と進捗
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<IndexJobResponse> getJob(@PathVariable long jobId) {
+        return ResponseEntity.ok(indexManagementService.getJob(jobId));
+    }
+}
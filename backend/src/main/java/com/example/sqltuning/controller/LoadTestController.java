@@ -0,0 +1,29 @@
+package com.example.sqltuning.controller;
+
+import com.example.sqltuning.dto.LoadTestRequest;
+import com.example.sqltuning.dto.LoadTestResponse;
+import com.example.sqltuning.loadtest.LoadTestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/benchmark")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class LoadTestController {
+
+    private final LoadTestService loadTestService;
+
+    /**
+     * 遅い/速いバージョンを同時実行で比較する負荷テスト（実行中は409）
+     * target=HTTP の場合は、このリクエストのAuthorizationヘッダーで自分自身のエンドポイントを呼び出す
+     */
+    @PostMapping("/run")
+    public ResponseEntity<LoadTestResponse> run(
+            @RequestBody LoadTestRequest request,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return ResponseEntity.ok(loadTestService.run(request, authorization));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.sqltuning.controller;
+
+import com.example.sqltuning.datasource.RoutingDataSource;
+import com.example.sqltuning.dto.CacheMetricsResponse;
+import com.example.sqltuning.dto.LoginMetricsResponse;
+import com.example.sqltuning.dto.RoutingMetricsResponse;
+import com.example.sqltuning.dto.SingleFlightMetricsResponse;
+import com.example.sqltuning.dto.StatementMetricsResponse;
+import com.example.sqltuning.metrics.SqlMetricsRegistry;
+import com.example.sqltuning.mybatis.TinyLfuCache;
+import com.example.sqltuning.security.PasswordVerificationExecutor;
+import com.example.sqltuning.support.SingleFlight;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/metrics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class MetricsController {
+
+    private final SqlMetricsRegistry sqlMetricsRegistry;
+    private final PasswordVerificationExecutor passwordVerificationExecutor;
+    private final ObjectProvider<RoutingDataSource> routingDataSource;
+    private final SingleFlight singleFlight;
+
+    /**
+     * マッパーのステートメントごとのSQL実行統計（合計時間の降順）
+     */
+    @GetMapping("/sql")
+    public ResponseEntity<List<StatementMetricsResponse>> getSqlMetrics() {
+        return ResponseEntity.ok(sqlMetricsRegistry.snapshot());
+    }
+
+    /**
+     * SQL実行統計をリセット
+     */
+    @DeleteMapping("/sql")
+    public ResponseEntity<String> resetSqlMetrics() {
+        sqlMetricsRegistry.reset();
+        return ResponseEntity.ok("SQL実行統計をリセットしました");
+    }
+
+    /**
+     * ログイン（パスワード照合）スレッドプールの状態とレイテンシ
+     */
+    @GetMapping("/login")
+    public ResponseEntity<LoginMetricsResponse> getLoginMetrics() {
+        return ResponseEntity.ok(passwordVerificationExecutor.snapshot());
+    }
+
+    /**
+     * 読み書き分離の振り分け件数とレプリカの状態（app.datasource.routing.enabled=true の場合のみ）
+     */
+    @GetMapping("/routing")
+    public ResponseEntity<RoutingMetricsResponse> getRoutingMetrics() {
+        RoutingDataSource dataSource = routingDataSource.getIfAvailable();
+        if (dataSource == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(dataSource.snapshot());
+    }
+
+    /**
+     * マッパーの2次キャッシュ（W-TinyLFU）の名前空間ごとのヒット率と追い出し数
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<List<CacheMetricsResponse>> getCacheMetrics() {
+        return ResponseEntity.ok(TinyLfuCache.snapshot());
+    }
+
+    /**
+     * 検索APIのシングルフライト（同時の同一リクエストの相乗り）の呼び出し回数と相乗り率
+     */
+    @GetMapping("/single-flight")
+    public ResponseEntity<List<SingleFlightMetricsResponse>> getSingleFlightMetrics() {
+        return ResponseEntity.ok(singleFlight.snapshot());
+    }
+
+    /**
+     * シングルフライトの統計をリセット
+     */
+    @DeleteMapping("/single-flight")
+    public ResponseEntity<String> resetSingleFlightMetrics() {
+        singleFlight.reset();
+        return ResponseEntity.ok("シングルフライトの統計をリセットしました");
+    }
+}
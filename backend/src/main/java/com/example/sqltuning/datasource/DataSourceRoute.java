@@ -0,0 +1,35 @@
+package com.example.sqltuning.datasource;
+
+/**
+ * トランザクション外の文をレプリカへ振り分けるためのスレッドローカルなヒント
+ *
+ * ReadReplicaRoutingInterceptorが文の実行中だけ設定し、RoutingDataSourceが接続取得時に参照する。
+ */
+public final class DataSourceRoute {
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    private DataSourceRoute() {
+    }
+
+    public static boolean isReadOnly() {
+        return Boolean.TRUE.equals(READ_ONLY.get());
+    }
+
+    /**
+     * ヒントを設定し、直前の値を返す（finallyでrestoreに渡す）
+     */
+    public static Boolean markReadOnly() {
+        Boolean previous = READ_ONLY.get();
+        READ_ONLY.set(Boolean.TRUE);
+        return previous;
+    }
+
+    public static void restore(Boolean previous) {
+        if (previous == null) {
+            READ_ONLY.remove();
+        } else {
+            READ_ONLY.set(previous);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.sqltuning.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 読み書き分離（app.datasource.routing.enabled=true の場合のみ）
+ *
+ * spring.datasource をプライマリとし、app.datasource.routing.replicas のレプリカを加えた
+ * RoutingDataSourceをアプリケーションのDataSourceとして公開する。
+ * JdbcTemplateやUserMapperなど @ReadReplica のない処理は従来どおりプライマリで実行される。
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(RoutingDataSourceProperties properties,
+                                               DataSourceProperties dataSourceProperties) {
+        List<RoutingDataSourceProperties.Replica> replicas = properties.getReplicas();
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("app.datasource.routing.replicas にレプリカを1つ以上設定してください");
+        }
+        Map<String, DataSource> replicaDataSources = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            RoutingDataSourceProperties.Replica replica = replicas.get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + (i + 1));
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null
+                    ? replica.getUsername() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null
+                    ? replica.getPassword() : dataSourceProperties.determinePassword());
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            // レプリカが停止していても起動できるよう、プールの初期化は最初の接続まで遅らせる
+            dataSource.setInitializationFailTimeout(-1);
+            replicaDataSources.put(dataSource.getPoolName(), dataSource);
+        }
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaDataSources, properties.getMaxLagSeconds(),
+                properties.getLagCheckIntervalMs());
+        monitor.start();
+        return monitor;
+    }
+
+    @Bean
+    public RoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                               ReplicaLagMonitor replicaLagMonitor) {
+        Map<Object, Object> targets = new HashMap<>(replicaLagMonitor.dataSources());
+        targets.put(RoutingDataSource.PRIMARY, primaryDataSource);
+        RoutingDataSource routingDataSource = new RoutingDataSource(replicaLagMonitor);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        return routingDataSource;
+    }
+
+    /**
+     * トランザクション開始時には接続を取得せず、最初の文の実行時に振り分け先を決める
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(RoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
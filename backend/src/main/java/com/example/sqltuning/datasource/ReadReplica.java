@@ -0,0 +1,19 @@
+package com.example.sqltuning.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * レプリカで実行してよい読み取り専用のマッパー（またはメソッド）
+ *
+ * 読み書き分離が有効な場合、トランザクション外で実行されるこのマッパーのSELECTは
+ * レプリカに振り分けられる。INSERT/UPDATE/DELETE/DDLは付与されていてもプライマリで実行される。
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ReadReplica {
+}
@@ -0,0 +1,86 @@
+package com.example.sqltuning.datasource;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ReadReplica} が付与されたマッパーのSELECTをレプリカへ振り分けるMyBatisプラグイン
+ *
+ * トランザクション外の文は接続の取得時点で読み取り専用かどうかが分からないため、
+ * 文の実行中だけDataSourceRouteにヒントを設定する。トランザクション内ではそのトランザクションの
+ * readOnly指定に従うため、ここでは何もしない。判定結果はステートメントIDごとにキャッシュする。
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class})
+})
+public class ReadReplicaRoutingInterceptor implements Interceptor {
+
+    private final Map<String, Boolean> replicaStatements = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                || mappedStatement.getSqlCommandType() != SqlCommandType.SELECT
+                || !replicaStatements.computeIfAbsent(mappedStatement.getId(), this::isReplicaStatement)) {
+            return invocation.proceed();
+        }
+        Boolean previous = DataSourceRoute.markReadOnly();
+        try {
+            return invocation.proceed();
+        } finally {
+            DataSourceRoute.restore(previous);
+        }
+    }
+
+    /**
+     * ステートメントID（マッパーの完全修飾名.メソッド名）からアノテーションを確認する
+     */
+    private boolean isReplicaStatement(String statementId) {
+        int separator = statementId.lastIndexOf('.');
+        if (separator < 0) {
+            return false;
+        }
+        String methodName = statementId.substring(separator + 1);
+        Class<?> mapperType;
+        try {
+            mapperType = Class.forName(statementId.substring(0, separator));
+        } catch (ClassNotFoundException e) {
+            // XMLのみで定義された名前空間
+            return false;
+        }
+        Method[] methods = Arrays.stream(mapperType.getMethods())
+                .filter(method -> method.getName().equals(methodName))
+                .toArray(Method[]::new);
+        if (Arrays.stream(methods).anyMatch(method -> method.isAnnotationPresent(UsePrimary.class))) {
+            return false;
+        }
+        return mapperType.isAnnotationPresent(ReadReplica.class)
+                || Arrays.stream(methods).anyMatch(method -> method.isAnnotationPresent(ReadReplica.class));
+    }
+}
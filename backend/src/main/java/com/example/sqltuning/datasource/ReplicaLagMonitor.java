@@ -0,0 +1,129 @@
+package com.example.sqltuning.datasource;
+
+import com.example.sqltuning.dto.ReplicaStatusResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * レプリカの遅延監視とラウンドロビンでの選択
+ *
+ * 一定間隔で各レプリカに SHOW REPLICA STATUS を実行し、接続できない・レプリケーションが
+ * 停止している・Seconds_Behind_Source が上限以上のレプリカを振り分け対象から外す。
+ * 利用できるレプリカがない場合、RoutingDataSourceはプライマリにフォールバックする。
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final long maxLagSeconds;
+    private final long intervalMs;
+    private final Map<String, ReplicaStatusResponse> statuses = new ConcurrentHashMap<>();
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, long maxLagSeconds, long intervalMs) {
+        this.replicas = replicas;
+        this.replicaKeys = List.copyOf(replicas.keySet());
+        this.maxLagSeconds = maxLagSeconds;
+        this.intervalMs = intervalMs;
+        // 最初の確認が終わるまでは振り分けない
+        replicaKeys.forEach(key -> statuses.put(key, status(key, false, null, "未確認")));
+    }
+
+    /**
+     * 定期的な遅延確認を開始する（構築が終わってから呼ぶ）
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::checkAll, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 利用可能なレプリカをラウンドロビンで返す（なければnull）
+     */
+    public String nextHealthyReplica() {
+        int size = replicaKeys.size();
+        int start = Math.floorMod(roundRobin.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            if (statuses.get(key).isHealthy()) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    public Map<String, DataSource> dataSources() {
+        return replicas;
+    }
+
+    public List<ReplicaStatusResponse> snapshot() {
+        return replicaKeys.stream().map(statuses::get).toList();
+    }
+
+    void checkAll() {
+        for (String key : replicaKeys) {
+            statuses.put(key, check(key));
+        }
+    }
+
+    private ReplicaStatusResponse check(String key) {
+        try {
+            List<Map<String, Object>> rows = new JdbcTemplate(replicas.get(key)).queryForList("SHOW REPLICA STATUS");
+            if (rows.isEmpty()) {
+                // レプリケーションが設定されていない（検証用に独立したインスタンスを使う場合など）
+                return status(key, true, null, "レプリケーション未設定");
+            }
+            Map<String, Object> row = rows.get(0);
+            boolean running = "Yes".equals(row.get("Replica_IO_Running")) && "Yes".equals(row.get("Replica_SQL_Running"));
+            Object lag = row.get("Seconds_Behind_Source");
+            Long lagSeconds = lag instanceof Number number ? number.longValue() : null;
+            if (!running || lagSeconds == null) {
+                return status(key, false, lagSeconds, "レプリケーション停止中");
+            }
+            if (lagSeconds >= maxLagSeconds) {
+                return status(key, false, lagSeconds, "遅延が上限（" + maxLagSeconds + "秒）以上");
+            }
+            return status(key, true, lagSeconds, null);
+        } catch (Exception e) {
+            ReplicaStatusResponse previous = statuses.get(key);
+            if (previous == null || previous.isHealthy()) {
+                log.warn("レプリカ {} の状態を確認できません: {}", key, e.getMessage());
+            }
+            return status(key, false, null, "接続エラー: " + e.getMessage());
+        }
+    }
+
+    private static ReplicaStatusResponse status(String key, boolean healthy, Long lagSeconds, String note) {
+        return new ReplicaStatusResponse(key, healthy, lagSeconds, Objects.toString(note, ""), LocalDateTime.now());
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("レプリカの接続プールを閉じられませんでした: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
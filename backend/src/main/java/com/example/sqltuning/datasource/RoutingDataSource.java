@@ -0,0 +1,56 @@
+package com.example.sqltuning.datasource;
+
+import com.example.sqltuning.dto.RoutingMetricsResponse;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 読み取り専用の処理をレプリカへ、それ以外をプライマリへ振り分けるDataSource
+ *
+ * トランザクション内では @Transactional(readOnly = true) かどうか、トランザクション外では
+ * ReadReplicaRoutingInterceptorが設定するヒントで判定する。トランザクション開始時点では
+ * readOnlyフラグがまだ設定されていないため、LazyConnectionDataSourceProxyで包み、
+ * 最初の文の実行時まで実際の接続取得（= 振り分けの判定）を遅らせて使う。
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder fallbackConnections = new LongAdder();
+
+    public RoutingDataSource(ReplicaLagMonitor replicaLagMonitor) {
+        this.replicaLagMonitor = replicaLagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                ? TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                : DataSourceRoute.isReadOnly();
+        if (!readOnly) {
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        String replica = replicaLagMonitor.nextHealthyReplica();
+        if (replica == null) {
+            fallbackConnections.increment();
+            return PRIMARY;
+        }
+        replicaConnections.increment();
+        return replica;
+    }
+
+    public RoutingMetricsResponse snapshot() {
+        RoutingMetricsResponse response = new RoutingMetricsResponse();
+        response.setPrimaryConnections(primaryConnections.sum());
+        response.setReplicaConnections(replicaConnections.sum());
+        response.setFallbackConnections(fallbackConnections.sum());
+        response.setReplicas(replicaLagMonitor.snapshot());
+        return response;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.sqltuning.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 読み書き分離の設定（app.datasource.routing）
+ *
+ * プライマリは spring.datasource をそのまま使い、レプリカはここで列挙する。
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled;
+    // この秒数以上遅延しているレプリカには振り分けない
+    private long maxLagSeconds = 5;
+    private long lagCheckIntervalMs = 5000;
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        // 省略時はプライマリと同じ
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
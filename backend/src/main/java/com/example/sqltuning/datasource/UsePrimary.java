@@ -0,0 +1,16 @@
+package com.example.sqltuning.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link ReadReplica} が付与されたマッパーの中で、常にプライマリで実行するメソッド
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface UsePrimary {
+}
@@ -0,0 +1,134 @@
+package com.example.sqltuning.diagnostics;
+
+import com.example.sqltuning.diagnostics.SlowQueryLog.ExplainResult;
+import com.example.sqltuning.diagnostics.SlowQueryLog.ExplainStatus;
+import com.example.sqltuning.diagnostics.SlowQueryLog.SlowQuery;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SlowQueryLogに記録されたSQLのEXPLAINをバックグラウンドで実行するワーカー
+ *
+ * SELECTは EXPLAIN ANALYZE（実際に実行して各ステップの実行時間を取得）、
+ * INSERT/UPDATE/DELETEは実行しない EXPLAIN FORMAT=JSON を使う。
+ * 1回の実行間隔ごとに最大1件だけ処理し、同じステートメントは一定時間内に再度EXPLAINしない。
+ */
+@Component
+@Slf4j
+public class SlowQueryExplainWorker {
+
+    private final SlowQueryLog slowQueryLog;
+    private final JdbcTemplate jdbcTemplate;
+    private final long intervalMs;
+    private final long cooldownMs;
+    // ステートメントIDごとの最後にEXPLAINした時刻
+    private final Map<String, Long> lastExplainedAt = new HashMap<>();
+    private ScheduledExecutorService scheduler;
+    private long cursor;
+
+    public SlowQueryExplainWorker(SlowQueryLog slowQueryLog,
+                                  DataSource dataSource,
+                                  @Value("${diagnostics.slow-query.explain-interval-ms:1000}") long intervalMs,
+                                  @Value("${diagnostics.slow-query.explain-cooldown-ms:60000}") long cooldownMs,
+                                  @Value("${diagnostics.slow-query.explain-timeout-seconds:10}") int timeoutSeconds) {
+        this.slowQueryLog = slowQueryLog;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout(timeoutSeconds);
+        this.intervalMs = intervalMs;
+        this.cooldownMs = cooldownMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explain");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::explainNext, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 未処理のエントリを古い順に1件EXPLAINする（スケジューラの単一スレッドからのみ呼ばれる）
+     */
+    void explainNext() {
+        try {
+            long next = slowQueryLog.nextSequence();
+            // 上書きされて読めなくなったエントリは飛ばす
+            cursor = Math.max(cursor, next - slowQueryLog.capacity());
+            while (cursor < next) {
+                SlowQuery entry = slowQueryLog.get(cursor++);
+                if (entry != null && explain(entry)) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("スロークエリのEXPLAINに失敗しました: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return 実際にEXPLAINを実行した場合はtrue（スキップした場合はfalse）
+     */
+    private boolean explain(SlowQuery entry) {
+        String format = explainFormat(entry);
+        if (format == null) {
+            entry.setExplain(ExplainResult.skipped("EXPLAINの対象外の文です"));
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        Long previous = lastExplainedAt.get(entry.getStatementId());
+        if (previous != null && now - previous < cooldownMs) {
+            entry.setExplain(ExplainResult.skipped("同じステートメントを直近でEXPLAIN済みです"));
+            return false;
+        }
+        lastExplainedAt.put(entry.getStatementId(), now);
+
+        String explainSql = ("ANALYZE".equals(format) ? "EXPLAIN ANALYZE " : "EXPLAIN FORMAT=JSON ") + entry.getSql();
+        try {
+            String plan = jdbcTemplate.query(explainSql,
+                    rs -> rs.next() ? rs.getString(1) : null,
+                    entry.getParameters().toArray());
+            entry.setExplain(new ExplainResult(ExplainStatus.EXPLAINED, format, plan, null, LocalDateTime.now()));
+            log.info("スロークエリをEXPLAINしました: {}", entry.getStatementId());
+        } catch (Exception e) {
+            entry.setExplain(new ExplainResult(ExplainStatus.FAILED, format, null, e.getMessage(), LocalDateTime.now()));
+            log.warn("スロークエリのEXPLAINに失敗しました: {}: {}", entry.getStatementId(), e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * SELECTはANALYZE、DMLはJSON、それ以外（EXPLAIN自体やDDL）はnull
+     */
+    private static String explainFormat(SlowQuery entry) {
+        String head = entry.getSql().stripLeading().toUpperCase(Locale.ROOT);
+        if (entry.getCommandType() == SqlCommandType.SELECT) {
+            return head.startsWith("SELECT") || head.startsWith("WITH") ? "ANALYZE" : null;
+        }
+        if (head.startsWith("INSERT") || head.startsWith("UPDATE")
+                || head.startsWith("DELETE") || head.startsWith("REPLACE")) {
+            return "JSON";
+        }
+        return null;
+    }
+}
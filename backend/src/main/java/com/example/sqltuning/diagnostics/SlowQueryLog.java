@@ -0,0 +1,166 @@
+package com.example.sqltuning.diagnostics;
+
+import com.example.sqltuning.dto.SlowQueryResponse;
+import com.example.sqltuning.mybatis.BoundParameters;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * スロークエリを保持する固定サイズのリングバッファ（ロックフリー）
+ *
+ * 書き込みは連番をgetAndIncrementしてスロットを上書きするだけで、ロックを取らない。
+ * 古いエントリは新しいエントリで上書きされる。EXPLAINの結果は各エントリの
+ * volatileフィールドに後から設定される。
+ */
+@Component
+public class SlowQueryLog {
+
+    private final AtomicReferenceArray<SlowQuery> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SlowQueryLog(@Value("${diagnostics.slow-query.capacity:256}") int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void record(String statementId, SqlCommandType commandType, String sql,
+                       List<Object> parameters, long elapsedNanos) {
+        long seq = sequence.getAndIncrement();
+        slots.set(slotOf(seq), new SlowQuery(seq, statementId, commandType, sql,
+                parameters.stream().map(BoundParameters::toJdbcValue).toList(),
+                elapsedNanos, LocalDateTime.now()));
+    }
+
+    /**
+     * 連番seqのエントリ（上書き済み・未記録の場合はnull）
+     */
+    public SlowQuery get(long seq) {
+        SlowQuery entry = slots.get(slotOf(seq));
+        return entry != null && entry.sequence == seq ? entry : null;
+    }
+
+    /**
+     * 次に割り当てられる連番
+     */
+    public long nextSequence() {
+        return sequence.get();
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * 保持しているエントリを新しい順に返す
+     */
+    public List<SlowQueryResponse> snapshot() {
+        List<SlowQuery> entries = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            SlowQuery entry = slots.get(i);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.comparingLong((SlowQuery entry) -> entry.sequence).reversed());
+        return entries.stream().map(SlowQuery::toResponse).toList();
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    private int slotOf(long seq) {
+        return (int) (seq % slots.length());
+    }
+
+    /**
+     * 記録されたスロークエリ1件
+     */
+    public static class SlowQuery {
+        private final long sequence;
+        private final String statementId;
+        private final SqlCommandType commandType;
+        private final String sql;
+        private final List<Object> parameters;
+        private final long elapsedNanos;
+        private final LocalDateTime capturedAt;
+        private volatile ExplainResult explain;
+
+        SlowQuery(long sequence, String statementId, SqlCommandType commandType, String sql,
+                  List<Object> parameters, long elapsedNanos, LocalDateTime capturedAt) {
+            this.sequence = sequence;
+            this.statementId = statementId;
+            this.commandType = commandType;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.elapsedNanos = elapsedNanos;
+            this.capturedAt = capturedAt;
+        }
+
+        public String getStatementId() {
+            return statementId;
+        }
+
+        public SqlCommandType getCommandType() {
+            return commandType;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public List<Object> getParameters() {
+            return parameters;
+        }
+
+        public void setExplain(ExplainResult explain) {
+            this.explain = explain;
+        }
+
+        SlowQueryResponse toResponse() {
+            SlowQueryResponse response = new SlowQueryResponse();
+            response.setSequence(sequence);
+            response.setStatementId(statementId);
+            response.setCommandType(commandType.name());
+            response.setSql(sql);
+            response.setParameters(parameters.stream().map(String::valueOf).toList());
+            response.setElapsedMs(Math.round(elapsedNanos / 1000.0) / 1000.0);
+            response.setCapturedAt(capturedAt);
+            ExplainResult current = explain;
+            if (current == null) {
+                response.setExplainStatus(ExplainStatus.PENDING.name());
+            } else {
+                response.setExplainStatus(current.status().name());
+                response.setExplainFormat(current.format());
+                response.setPlan(current.plan());
+                response.setExplainError(current.error());
+                response.setExplainedAt(current.explainedAt());
+            }
+            return response;
+        }
+    }
+
+    public enum ExplainStatus {
+        PENDING, EXPLAINED, SKIPPED, FAILED
+    }
+
+    /**
+     * EXPLAINの実行結果（formatはANALYZE / JSON）
+     */
+    public record ExplainResult(ExplainStatus status, String format, String plan, String error,
+                                LocalDateTime explainedAt) {
+
+        public static ExplainResult skipped(String reason) {
+            return new ExplainResult(ExplainStatus.SKIPPED, null, null, reason, LocalDateTime.now());
+        }
+    }
+}
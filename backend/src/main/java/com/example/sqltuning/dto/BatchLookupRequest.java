@@ -0,0 +1,10 @@
+package com.example.sqltuning.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class BatchLookupRequest {
+    // 取得するID（重複可、レスポンスはこの順序で返す）
+    private List<Integer> ids;
+}
@@ -0,0 +1,28 @@
+package com.example.sqltuning.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class BatchLookupResponse<T> {
+    // リクエストのIDと同じ順序・同じ件数（見つからないIDは found=false, item=null）
+    private List<Item<T>> results;
+    private Integer requested;
+    private Integer found;
+    private Integer missing;
+    // 実際に発行した IN (...) クエリの回数（チャンク数）
+    private Integer queryCount;
+    private Long executionTimeMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item<T> {
+        private Integer id;
+        private boolean found;
+        private T item;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.sqltuning.dto;
+
+import lombok.Data;
+
+@Data
+public class CacheMetricsResponse {
+    private String namespace;
+    private int maximumSize;
+    private long ttlMs;
+    private int size;
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long evictions;
+    private long expirations;
+    // 同じ名前空間の更新・DDLによる全件破棄の回数
+    private long invalidations;
+}
@@ -0,0 +1,15 @@
+package com.example.sqltuning.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class CreateIndexRequest {
+    private String table;
+    private String indexName;
+    private List<String> columns;
+    // trueの場合は不可視で作成し、確認後に可視化する
+    private boolean invisible;
+    // trueの場合はFULLTEXTインデックス（ngramパーサー）として作成する
+    private boolean fulltext;
+}
@@ -16,4 +16,13 @@ public class FilmResponse {
     private String executedSql;
     private Long executionTimeMs;
     private List<Map<String, Object>> executionPlan;
+    // 実行計画をキャッシュから返したかどうか
+    private Boolean executionPlanCached;
+    // EXPLAINの実行方式（sequential / parallel）とEXPLAINを含む全体の時間
+    private String explainMode;
+    private Long totalTimeMs;
+    // アプリケーション内インデックスの検索時間（マイクロ秒）
+    private Long indexLookupMicros;
+    // ページ単位の検索で次のページがあるかどうか
+    private Boolean hasMore;
 }
@@ -0,0 +1,43 @@
+package com.example.sqltuning.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class IndexAdvisorReport {
+    private LocalDateTime analyzedAt;
+    private int analyzedStatements;
+    private List<StatementAdvice> statements = new ArrayList<>();
+
+    @Data
+    public static class StatementAdvice {
+        private String statementId;
+        private long executions;
+        private double totalTimeMs;
+        private String sql;
+        // type=ALL、Using filesort などEXPLAINで検出した問題
+        private List<String> issues = new ArrayList<>();
+        private long estimatedRowsExamined;
+        private List<IndexSuggestion> suggestions = new ArrayList<>();
+        // 推奨インデックスを作成した場合の1回あたり・累計の読み取り行数の削減見込み
+        private long rowsSavedPerExecution;
+        private long rowsSavedTotal;
+    }
+
+    @Data
+    public static class IndexSuggestion {
+        private String table;
+        private List<String> columns;
+        private String ddl;
+        // 不可視インデックスでの検証結果
+        private boolean validated;
+        private boolean usedByOptimizer;
+        private long estimatedRowsExamined;
+        private long rowsSaved;
+        private boolean removesFilesort;
+        private boolean recommended;
+        private String note;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.sqltuning.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class IndexInfoResponse {
+    private String indexName;
+    private List<String> columns;
+    private boolean unique;
+    private boolean visible;
+}
@@ -0,0 +1,27 @@
+package com.example.sqltuning.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class IndexJobResponse {
+    private long jobId;
+    // CREATE / DROP
+    private String operation;
+    private String table;
+    private String indexName;
+    private List<String> columns;
+    // QUEUED / RUNNING / COMPLETED / FAILED
+    private String status;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long elapsedMs;
+    private String error;
+    // performance_schema.events_stages_current から取得した実行中のステージと進捗
+    private String stage;
+    private Long workCompleted;
+    private Long workEstimated;
+    private Double progressPercent;
+}
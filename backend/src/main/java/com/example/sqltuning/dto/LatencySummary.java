@@ -0,0 +1,14 @@
+package com.example.sqltuning.dto;
+
+import lombok.Data;
+
+@Data
+public class LatencySummary {
+    private long count;
+    private double meanMicros;
+    private double p50Micros;
+    private double p90Micros;
+    private double p95Micros;
+    private double p99Micros;
+    private double maxMicros;
+}
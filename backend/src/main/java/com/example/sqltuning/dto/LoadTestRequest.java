@@ -0,0 +1,20 @@
+package com.example.sqltuning.dto;
+
+import com.example.sqltuning.loadtest.LoadTestTarget;
+import com.example.sqltuning.loadtest.VariantPair;
+import lombok.Data;
+
+@Data
+public class LoadTestRequest {
+    private VariantPair pair;
+    // SERVICE（既定）/ HTTP
+    private LoadTestTarget target;
+    // バリアントごとの同時実行数
+    private Integer concurrency;
+    private Integer durationSeconds;
+    private Integer warmupSeconds;
+    // TITLE_SEARCH用
+    private String title;
+    // FILMS_COMPLEX用
+    private Integer minLength;
+}
@@ -0,0 +1,30 @@
+package com.example.sqltuning.dto;
+
+import com.example.sqltuning.loadtest.LoadTestTarget;
+import com.example.sqltuning.loadtest.VariantPair;
+import lombok.Data;
+
+@Data
+public class LoadTestResponse {
+    private VariantPair pair;
+    private LoadTestTarget target;
+    // リクエスト処理が仮想スレッドか（spring.threads.virtual.enabled、HTTPの場合に結果を左右する）
+    private boolean virtualThreads;
+    private int concurrency;
+    private int durationSeconds;
+    private int warmupSeconds;
+    private VariantResult slow;
+    private VariantResult fast;
+    // 計測区間中のコネクション取得待ち時間（両バリアント合計）
+    private LatencySummary poolAcquire;
+    private long poolTimeouts;
+
+    @Data
+    public static class VariantResult {
+        private String variant;
+        private long requests;
+        private long errors;
+        private double throughputPerSec;
+        private LatencySummary latency;
+    }
+}
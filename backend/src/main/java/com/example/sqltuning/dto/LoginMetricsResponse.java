@@ -0,0 +1,17 @@
+package com.example.sqltuning.dto;
+
+import lombok.Data;
+
+@Data
+public class LoginMetricsResponse {
+    private int poolSize;
+    private int activeThreads;
+    private int queueDepth;
+    private int queueCapacity;
+    private long completed;
+    private long rejected;
+    // キュー待ち時間
+    private LatencySummary queueWait;
+    // BCrypt照合を含む認証処理の時間
+    private LatencySummary verification;
+}
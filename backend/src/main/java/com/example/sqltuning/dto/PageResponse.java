@@ -0,0 +1,18 @@
+package com.example.sqltuning.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponse<T> {
+    private List<T> items;
+    private Integer limit;
+    private Boolean hasMore;
+    // 次ページ取得用の継続トークン（最終ページではnull）
+    private String nextToken;
+}
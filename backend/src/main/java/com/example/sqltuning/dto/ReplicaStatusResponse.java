@@ -0,0 +1,15 @@
+package com.example.sqltuning.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ReplicaStatusResponse {
+    private String name;
+    private boolean healthy;
+    private Long lagSeconds;
+    private String note;
+    private LocalDateTime checkedAt;
+}
@@ -0,0 +1,13 @@
+package com.example.sqltuning.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class RoutingMetricsResponse {
+    private long primaryConnections;
+    private long replicaConnections;
+    // 読み取り専用だったが利用できるレプリカがなくプライマリで実行した回数
+    private long fallbackConnections;
+    private List<ReplicaStatusResponse> replicas;
+}
@@ -0,0 +1,18 @@
+package com.example.sqltuning.dto;
+
+import lombok.Data;
+
+@Data
+public class SingleFlightMetricsResponse {
+    private String operation;
+    // 呼び出し回数（= 実行回数 + 相乗り回数）
+    private long calls;
+    // 実際にサービス（DB）を呼び出した回数
+    private long executions;
+    // 実行中の同じ呼び出しの結果を共有した回数
+    private long coalesced;
+    private double coalescingRatio;
+    private long failures;
+    // 現在実行中の呼び出し（キー）の数
+    private int inFlight;
+}
@@ -0,0 +1,21 @@
+package com.example.sqltuning.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class SlowQueryResponse {
+    private long sequence;
+    private String statementId;
+    private String commandType;
+    private String sql;
+    private List<String> parameters;
+    private double elapsedMs;
+    private LocalDateTime capturedAt;
+    private String explainStatus;
+    private String explainFormat;
+    private String plan;
+    private String explainError;
+    private LocalDateTime explainedAt;
+}
@@ -0,0 +1,17 @@
+package com.example.sqltuning.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementMetricsResponse {
+    private String statementId;
+    private String commandType;
+    private long errors;
+    private long rows;
+    private double totalTimeMs;
+    private LatencySummary latency;
+}
@@ -0,0 +1,19 @@
+package com.example.sqltuning.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class SummaryRefreshResponse {
+    private String readModel;
+    // 全件の再構築だったかどうか（ウォーターマークがない初回のみ）
+    private boolean full;
+    // この時刻以降に変更された行を反映した（全件の場合はnull）
+    private LocalDateTime since;
+    // 次回の差分更新の起点
+    private LocalDateTime watermark;
+    // INSERTは1、内容が変わったUPDATEは2として数えられる
+    private int upsertedRows;
+    private int deletedRows;
+    private long elapsedMs;
+}
@@ -23,4 +23,7 @@ public class Film {
     // Join用の追加フィールド
     private String languageName;
     private Integer actorCount;
+
+    // FULLTEXT検索の関連度
+    private Double relevance;
 }
@@ -0,0 +1,11 @@
+package com.example.sqltuning.entity;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class Language {
+    private Integer languageId;
+    private String name;
+    private LocalDateTime lastUpdate;
+}
@@ -0,0 +1,282 @@
+package com.example.sqltuning.loadtest;
+
+import com.example.sqltuning.dto.LoadTestRequest;
+import com.example.sqltuning.dto.LoadTestResponse;
+import com.example.sqltuning.metrics.HikariPoolMetrics;
+import com.example.sqltuning.metrics.LatencyHistogram;
+import com.example.sqltuning.service.CustomerService;
+import com.example.sqltuning.service.FilmService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 遅い/速いバージョンを同時に負荷をかけて比較する負荷テストランナー
+ *
+ * 両バリアントをそれぞれconcurrency本の仮想スレッドで同時に呼び出し続け、
+ * ウォームアップ後の計測区間に開始したリクエストのみを集計する。
+ * 同時に実行できる負荷テストは1つだけ。
+ *
+ * target=HTTP では同じエンドポイントをHTTPで呼び出すため、Tomcatのリクエスト処理
+ * （spring.threads.virtual.enabled による仮想スレッド / プラットフォームスレッド）も計測に含まれる。
+ * 負荷をかける側も同じJVMで動くため、CPUを使い切る条件では結果が歪む点に注意。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoadTestService {
+
+    static final int DEFAULT_CONCURRENCY = 8;
+    static final int MAX_CONCURRENCY = 256;
+    static final int DEFAULT_DURATION_SECONDS = 10;
+    static final int MAX_DURATION_SECONDS = 120;
+    static final int DEFAULT_WARMUP_SECONDS = 3;
+    static final int MAX_WARMUP_SECONDS = 60;
+    static final Duration HTTP_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    static final Duration HTTP_REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final FilmService filmService;
+    private final CustomerService customerService;
+    private final HikariPoolMetrics hikariPoolMetrics;
+    private final Environment environment;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LoadTestResponse run(LoadTestRequest request, String authorization) {
+        if (request.getPair() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "pairを指定してください");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "別の負荷テストを実行中です");
+        }
+        try {
+            return execute(request, authorization);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private LoadTestResponse execute(LoadTestRequest request, String authorization) {
+        int concurrency = clamp(request.getConcurrency(), DEFAULT_CONCURRENCY, 1, MAX_CONCURRENCY);
+        int durationSeconds = clamp(request.getDurationSeconds(), DEFAULT_DURATION_SECONDS, 1, MAX_DURATION_SECONDS);
+        int warmupSeconds = clamp(request.getWarmupSeconds(), DEFAULT_WARMUP_SECONDS, 0, MAX_WARMUP_SECONDS);
+        LoadTestTarget target = request.getTarget() != null ? request.getTarget() : LoadTestTarget.SERVICE;
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        log.info("負荷テスト開始: {}, 経路: {}, 仮想スレッド: {}, 同時実行数: {}, 計測: {}秒, ウォームアップ: {}秒",
+                request.getPair(), target, virtualThreads, concurrency, durationSeconds, warmupSeconds);
+
+        long startTime = System.nanoTime();
+        long measureStart = startTime + warmupSeconds * 1_000_000_000L;
+        long measureEnd = measureStart + durationSeconds * 1_000_000_000L;
+
+        Histogram poolBefore;
+        long timeoutsBefore;
+        Histogram poolAfter;
+        long timeoutsAfter;
+        Variant slow;
+        Variant fast;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = target == LoadTestTarget.HTTP ? newHttpClient(executor) : null) {
+            slow = new Variant("slow", target == LoadTestTarget.HTTP
+                    ? httpVariant(httpClient, authorization, request, false)
+                    : variant(request, false));
+            fast = new Variant("fast", target == LoadTestTarget.HTTP
+                    ? httpVariant(httpClient, authorization, request, true)
+                    : variant(request, true));
+
+            for (int i = 0; i < concurrency; i++) {
+                executor.submit(() -> slow.drive(measureStart, measureEnd));
+                executor.submit(() -> fast.drive(measureStart, measureEnd));
+            }
+
+            sleepUntil(measureStart);
+            poolBefore = hikariPoolMetrics.acquireSnapshot();
+            timeoutsBefore = hikariPoolMetrics.getTimeouts();
+            sleepUntil(measureEnd);
+            poolAfter = hikariPoolMetrics.acquireSnapshot();
+            timeoutsAfter = hikariPoolMetrics.getTimeouts();
+        }
+        poolAfter.subtract(poolBefore);
+
+        LoadTestResponse response = new LoadTestResponse();
+        response.setPair(request.getPair());
+        response.setTarget(target);
+        response.setVirtualThreads(virtualThreads);
+        response.setConcurrency(concurrency);
+        response.setDurationSeconds(durationSeconds);
+        response.setWarmupSeconds(warmupSeconds);
+        response.setSlow(slow.result(durationSeconds));
+        response.setFast(fast.result(durationSeconds));
+        response.setPoolAcquire(LatencyHistogram.summarize(poolAfter));
+        response.setPoolTimeouts(timeoutsAfter - timeoutsBefore);
+
+        log.info("負荷テスト終了: {}, slow: {}件 ({}/s), fast: {}件 ({}/s)",
+                request.getPair(),
+                response.getSlow().getRequests(), response.getSlow().getThroughputPerSec(),
+                response.getFast().getRequests(), response.getFast().getThroughputPerSec());
+        return response;
+    }
+
+    private Runnable variant(LoadTestRequest request, boolean fast) {
+        String title = request.getTitle() != null ? request.getTitle() : "ACADEMY";
+        int minLength = request.getMinLength() != null ? request.getMinLength() : 90;
+        return switch (request.getPair()) {
+            case TITLE_SEARCH -> fast
+                    ? () -> filmService.searchFilmsByTitleFast(title)
+                    : () -> filmService.searchFilmsByTitleSlow(title);
+            case TITLE_FULLTEXT -> fast
+                    ? () -> filmService.searchFilmsFulltext(title, 0, null)
+                    : () -> filmService.searchFilmsByTitleSlow(title);
+            case FILMS_WITH_LANGUAGE -> fast
+                    ? filmService::getFilmsWithLanguageFast
+                    : filmService::getFilmsWithLanguageSlow;
+            case FILMS_COMPLEX -> fast
+                    ? () -> filmService.getFilmsComplexFast(minLength)
+                    : () -> filmService.getFilmsComplexSlow(minLength);
+            case FILMS_COMPLEX_PRECOMPUTED -> fast
+                    ? () -> filmService.getFilmsComplexPrecomputed(minLength)
+                    : () -> filmService.getFilmsComplexFast(minLength);
+            case CUSTOMERS -> fast
+                    ? customerService::getAllCustomersFast
+                    : customerService::getAllCustomersSlow;
+        };
+    }
+
+    /**
+     * variant() と同じ組み合わせのエンドポイントをHTTPで呼び出す
+     */
+    private Runnable httpVariant(HttpClient httpClient, String authorization, LoadTestRequest request, boolean fast) {
+        String title = URLEncoder.encode(request.getTitle() != null ? request.getTitle() : "ACADEMY", StandardCharsets.UTF_8);
+        int minLength = request.getMinLength() != null ? request.getMinLength() : 90;
+        String path = switch (request.getPair()) {
+            case TITLE_SEARCH -> fast ? "/films/search/fast?title=" + title : "/films/search/slow?title=" + title;
+            case TITLE_FULLTEXT -> fast ? "/films/search/fulltext?keyword=" + title : "/films/search/slow?title=" + title;
+            case FILMS_WITH_LANGUAGE -> fast ? "/films/with-language/fast" : "/films/with-language/slow";
+            case FILMS_COMPLEX -> fast
+                    ? "/films/complex/fast?minLength=" + minLength
+                    : "/films/complex/slow?minLength=" + minLength;
+            case FILMS_COMPLEX_PRECOMPUTED -> fast
+                    ? "/films/complex/precomputed?minLength=" + minLength
+                    : "/films/complex/fast?minLength=" + minLength;
+            case CUSTOMERS -> fast ? "/customers/fast" : "/customers/slow";
+        };
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl() + path))
+                .timeout(HTTP_REQUEST_TIMEOUT)
+                .GET();
+        if (authorization != null) {
+            builder.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        HttpRequest httpRequest = builder.build();
+        return () -> {
+            try {
+                // 本文は読み捨てるが、受信し終えるまでを計測する
+                HttpResponse<Void> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    throw new IllegalStateException("HTTP " + response.statusCode());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("負荷テストが中断されました", e);
+            }
+        };
+    }
+
+    private static HttpClient newHttpClient(ExecutorService executor) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(HTTP_CONNECT_TIMEOUT)
+                .executor(executor)
+                .build();
+    }
+
+    private String baseUrl() {
+        String port = environment.getProperty("local.server.port");
+        if (port == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Webサーバーが起動していないためHTTPでは実行できません");
+        }
+        return "http://localhost:" + port + environment.getProperty("server.servlet.context-path", "");
+    }
+
+    private static int clamp(Integer value, int defaultValue, int min, int max) {
+        if (value == null) {
+            return defaultValue;
+        }
+        return Math.max(min, Math.min(value, max));
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            try {
+                Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("負荷テストが中断されました", e);
+            }
+        }
+    }
+
+    /**
+     * 1つのバリアントの呼び出しと計測結果
+     */
+    private static class Variant {
+        private final String name;
+        private final Runnable call;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        Variant(String name, Runnable call) {
+            this.name = name;
+            this.call = call;
+        }
+
+        void drive(long measureStart, long measureEnd) {
+            long requestStart;
+            while ((requestStart = System.nanoTime()) < measureEnd) {
+                boolean measured = requestStart >= measureStart;
+                try {
+                    call.run();
+                    if (measured) {
+                        latency.record(System.nanoTime() - requestStart);
+                    }
+                } catch (RuntimeException e) {
+                    if (measured) {
+                        errors.increment();
+                    }
+                }
+            }
+        }
+
+        LoadTestResponse.VariantResult result(int durationSeconds) {
+            LoadTestResponse.VariantResult result = new LoadTestResponse.VariantResult();
+            result.setVariant(name);
+            result.setLatency(latency.summarize());
+            result.setRequests(result.getLatency().getCount());
+            result.setErrors(errors.sum());
+            result.setThroughputPerSec(Math.round(result.getRequests() * 100.0 / durationSeconds) / 100.0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.sqltuning.loadtest;
+
+/**
+ * 負荷テストでバリアントを呼び出す経路
+ */
+public enum LoadTestTarget {
+    // サービスのメソッドを直接呼び出す（クエリ自体の比較）
+    SERVICE,
+    // 自分自身のHTTPエンドポイントを呼び出す（Tomcatのリクエスト処理・シリアライズを含む比較）
+    HTTP
+}
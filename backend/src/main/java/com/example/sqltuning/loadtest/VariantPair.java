@@ -0,0 +1,19 @@
+package com.example.sqltuning.loadtest;
+
+/**
+ * 負荷テストで比較する遅い/速いバージョンの組み合わせ
+ */
+public enum VariantPair {
+    // デモ1: タイトル検索（LIKE '%...%' / 前方一致 + インデックス）
+    TITLE_SEARCH,
+    // タイトル部分一致検索（LIKE '%...%' / FULLTEXTインデックス、要 /films/index/fulltext/create）
+    TITLE_FULLTEXT,
+    // デモ2: N+1問題（ループ内クエリ / JOIN）
+    FILMS_WITH_LANGUAGE,
+    // デモ3: サブクエリ（相関サブクエリ / JOIN + GROUP BY）
+    FILMS_COMPLEX,
+    // 出演者数（JOIN + GROUP BY / 集計テーブル、要 12-create-film-actor-stats.sql）
+    FILMS_COMPLEX_PRECOMPUTED,
+    // デモ4: 顧客一覧（SELECT * / 必要な列のみ）
+    CUSTOMERS
+}
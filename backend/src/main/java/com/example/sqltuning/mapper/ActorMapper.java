@@ -1,12 +1,17 @@
 package com.example.sqltuning.mapper;
 
+import com.example.sqltuning.datasource.ReadReplica;
 import com.example.sqltuning.entity.Actor;
+import org.apache.ibatis.annotations.MapKey;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Mapper
+@ReadReplica
 public interface ActorMapper {
 
     /**
@@ -14,6 +19,19 @@ public interface ActorMapper {
      */
     List<Actor> findAllActors();
 
+    /**
+     * actor_idがafterIdより大きい俳優をlimit件取得（キーセットページネーション）
+     */
+    List<Actor> findActorsAfter(@Param("afterId") Integer afterId, @Param("limit") int limit);
+
+    /**
+     * 指定したカラムだけを取得する（fieldsパラメーター用、limitがnullなら全件）
+     * columnsはFieldProjectionでResultMapのカラムに限定済みであること
+     */
+    List<Actor> findActorColumnsAfter(@Param("columns") List<String> columns,
+                                      @Param("afterId") Integer afterId,
+                                      @Param("limit") Integer limit);
+
     /**
      * 名前で俳優を検索
      */
@@ -23,4 +41,10 @@ public interface ActorMapper {
      * IDで俳優を取得
      */
     Actor findActorById(@Param("actorId") Integer actorId);
+
+    /**
+     * 複数のIDで俳優を一括取得（/actors/batch 用）
+     */
+    @MapKey("actorId")
+    Map<Integer, Actor> findActorsByIds(@Param("ids") Collection<Integer> ids);
 }
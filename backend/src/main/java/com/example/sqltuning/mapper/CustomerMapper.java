@@ -1,5 +1,6 @@
 package com.example.sqltuning.mapper;
 
+import com.example.sqltuning.datasource.ReadReplica;
 import com.example.sqltuning.entity.Customer;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -7,6 +8,7 @@ import org.apache.ibatis.annotations.Param;
 import java.util.List;
 
 @Mapper
+@ReadReplica
 public interface CustomerMapper {
 
     /**
@@ -19,6 +21,26 @@ public interface CustomerMapper {
      */
     List<Customer> findAllCustomersFast();
 
+    /**
+     * customer_idがafterIdより大きい顧客をlimit件取得（キーセットページネーション）
+     */
+    List<Customer> findCustomersAfter(@Param("afterId") Integer afterId, @Param("limit") int limit);
+
+    /**
+     * 指定したカラムだけを取得する（fieldsパラメーター用、limitがnullなら全件）
+     * columnsはFieldProjectionでResultMapのカラムに限定済みであること
+     */
+    List<Customer> findCustomerColumnsAfter(@Param("columns") List<String> columns,
+                                            @Param("afterId") Integer afterId,
+                                            @Param("limit") Integer limit);
+
+    /**
+     * 住所・都市・国を4テーブルJOINで取得（キーセットページネーション、countryがnullなら全件）
+     */
+    List<Customer> findCustomersWithAddressAfter(@Param("afterId") Integer afterId,
+                                                 @Param("country") String country,
+                                                 @Param("limit") int limit);
+
     /**
      * メールで顧客を検索
      */
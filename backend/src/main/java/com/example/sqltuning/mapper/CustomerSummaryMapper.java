@@ -0,0 +1,59 @@
+package com.example.sqltuning.mapper;
+
+import com.example.sqltuning.datasource.ReadReplica;
+import com.example.sqltuning.entity.Customer;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 顧客＋住所のサマリーテーブル（customer_address_summary）
+ * テーブルは database/scripts/optional/11-create-customer-address-summary.sql で作成する
+ */
+@Mapper
+@ReadReplica
+public interface CustomerSummaryMapper {
+
+    /**
+     * サマリーテーブルからキーセットページネーションで取得（countryがnullなら全件）
+     */
+    List<Customer> findCustomersWithAddressAfter(@Param("afterId") Integer afterId,
+                                                 @Param("country") String country,
+                                                 @Param("limit") int limit);
+
+    /**
+     * sinceより後に変更された顧客（住所・都市・国の変更を含む）をUPSERTする（sinceがnullなら全件）
+     *
+     * @return 影響を受けた行数（INSERTは1、内容が変わったUPDATEは2として数えられる）
+     */
+    int upsertChangedCustomers(@Param("since") LocalDateTime since);
+
+    /**
+     * customerから削除された顧客をサマリーから削除する（全件更新用、サマリー全体を走査する）
+     */
+    int deleteRemovedCustomers();
+
+    /**
+     * since以降にトゥームストーンが記録された顧客をサマリーから削除する（差分更新用）
+     */
+    int deleteTombstonedCustomers(@Param("since") LocalDateTime since);
+
+    /**
+     * beforeより前のトゥームストーン（前回までの更新で取り込み済み）を削除する
+     */
+    int purgeTombstones(@Param("before") LocalDateTime before);
+
+    /**
+     * 読み取りモデルのウォーターマーク（前回の差分更新の開始時刻）
+     */
+    LocalDateTime findWatermark(@Param("name") String name);
+
+    void saveWatermark(@Param("name") String name, @Param("watermark") LocalDateTime watermark);
+
+    /**
+     * DBサーバーの現在時刻（last_updateと同じ時計で比較するため）
+     */
+    LocalDateTime findDatabaseTime();
+}
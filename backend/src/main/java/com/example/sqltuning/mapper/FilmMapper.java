@@ -1,13 +1,21 @@
 package com.example.sqltuning.mapper;
 
+import com.example.sqltuning.datasource.ReadReplica;
+import com.example.sqltuning.datasource.UsePrimary;
 import com.example.sqltuning.entity.Film;
+import com.example.sqltuning.entity.Language;
+import org.apache.ibatis.annotations.MapKey;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 @Mapper
+@ReadReplica
 public interface FilmMapper {
 
     /**
@@ -15,6 +23,25 @@ public interface FilmMapper {
      */
     List<Film> findAllFilms();
 
+    /**
+     * 全映画をカーソルで1行ずつ取得（ストリーミング）
+     * トランザクション内で呼び出し、カーソルを閉じるまで接続を占有する
+     */
+    Cursor<Film> streamAllFilms();
+
+    /**
+     * film_idがafterIdより大きい映画をlimit件取得（キーセットページネーション）
+     */
+    List<Film> findFilmsAfter(@Param("afterId") Integer afterId, @Param("limit") int limit);
+
+    /**
+     * 指定したカラムだけを取得する（fieldsパラメーター用、limitがnullなら全件）
+     * columnsはFieldProjectionでResultMapのカラムに限定済みであること
+     */
+    List<Film> findFilmColumnsAfter(@Param("columns") List<String> columns,
+                                    @Param("afterId") Integer afterId,
+                                    @Param("limit") Integer limit);
+
     /**
      * タイトルで映画を検索（インデックス未使用 - 遅い）
      * LIKEをテーブルスキャンで実行
@@ -46,28 +73,56 @@ public interface FilmMapper {
      */
     List<Film> findFilmsComplexFast(@Param("minLength") Integer minLength);
 
+    /**
+     * 複雑な条件での検索（出演者数は集計テーブルfilm_actor_statsから取得）
+     */
+    List<Film> findFilmsComplexPrecomputed(@Param("minLength") Integer minLength);
+
+    /**
+     * 全映画のID・タイトル（・説明）をタイトル順に1行ずつハンドラーに渡す（トライグラムインデックス構築用）
+     */
+    void scanFilmTexts(@Param("includeDescription") boolean includeDescription, ResultHandler<Film> handler);
+
+    /**
+     * 複数のIDで映画を取得（順序は保証しない）
+     */
+    List<Film> findFilmsByIds(@Param("ids") Collection<Integer> ids);
+
     /**
      * IDで映画を取得
      */
     Film findFilmById(@Param("filmId") Integer filmId);
-    
+
     /**
-     * SQLの実行計画を取得
+     * 複数のIDで映画を言語名付きで一括取得（/films/batch 用）
      */
-    List<Map<String, Object>> explainQuery(@Param("query") String query);
+    @MapKey("filmId")
+    Map<Integer, Film> findFilmsWithLanguageByIds(@Param("ids") Collection<Integer> ids);
     
     /**
-     * filmテーブルのtitleカラムにインデックスを作成
+     * SQLの実行計画を取得
+     * インデックスの作成・削除の直後に実行するため、レプリカの遅延を避けてプライマリで実行する
      */
-    void createTitleIndex();
+    @UsePrimary
+    List<Map<String, Object>> explainQuery(@Param("query") String query);
     
     /**
-     * filmテーブルのtitleカラムのインデックスを削除
+     * title・descriptionを対象とするFULLTEXTインデックス（ngramパーサー）で検索し、関連度の高い順に取得
+     *
+     * @param keyword BOOLEAN MODEの検索式（フレーズ検索の場合は "..." で囲む）
      */
-    void dropTitleIndex();
-    
+    List<Film> findFilmsByFulltext(@Param("keyword") String keyword,
+                                   @Param("offset") int offset,
+                                   @Param("limit") int limit);
+
     /**
      * language_idで言語名を取得（N+1問題用）
      */
     String findLanguageNameById(@Param("languageId") Integer languageId);
+
+    /**
+     * 複数のlanguage_idで言語を一括取得（BatchLoader用）
+     */
+    @MapKey("languageId")
+    Map<Integer, Language> findLanguagesByIds(@Param("ids") Collection<Integer> ids);
 }
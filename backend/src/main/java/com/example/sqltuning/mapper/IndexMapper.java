@@ -0,0 +1,59 @@
+package com.example.sqltuning.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * インデックス管理用のDDLと情報取得
+ *
+ * テーブル名・インデックス名・列名は ${} で埋め込むため、
+ * 呼び出し側（IndexManagementService）で許可リストと識別子の形式を検証してから渡すこと。
+ */
+@Mapper
+public interface IndexMapper {
+
+    /**
+     * インデックスをオンラインで作成（ALGORITHM=INPLACE, LOCK=NONE）
+     * FULLTEXTインデックスは同時更新できないため LOCK=SHARED（参照は可能）
+     */
+    void createIndex(@Param("table") String table,
+                     @Param("indexName") String indexName,
+                     @Param("columns") List<String> columns,
+                     @Param("invisible") boolean invisible,
+                     @Param("fulltext") boolean fulltext);
+
+    /**
+     * インデックスをオンラインで削除（ALGORITHM=INPLACE, LOCK=NONE）
+     */
+    void dropIndex(@Param("table") String table, @Param("indexName") String indexName);
+
+    /**
+     * インデックスの可視/不可視を切り替え（メタデータのみの変更で即時に完了）
+     */
+    void setIndexVisibility(@Param("table") String table,
+                            @Param("indexName") String indexName,
+                            @Param("visible") boolean visible);
+
+    /**
+     * テーブルのインデックス一覧（列はSEQ_IN_INDEX順）
+     */
+    List<Map<String, Object>> findIndexColumns(@Param("table") String table);
+
+    /**
+     * テーブルの列名一覧
+     */
+    List<String> findColumnNames(@Param("table") String table);
+
+    /**
+     * 現在の接続のperformance_schemaスレッドID
+     */
+    Long findCurrentThreadId();
+
+    /**
+     * 指定スレッドで実行中のステージ（ALTER TABLEの進捗）
+     */
+    Map<String, Object> findCurrentStage(@Param("threadId") long threadId);
+}
@@ -0,0 +1,27 @@
+package com.example.sqltuning.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * HikariDataSourceにHikariPoolMetricsを登録する
+ *
+ * MetricsTrackerFactoryはプールの初期化（最初のgetConnection()）より前に
+ * 設定する必要があるため、Bean初期化の前に差し込む。
+ */
+@Component
+@RequiredArgsConstructor
+public class HikariMetricsPostProcessor implements BeanPostProcessor {
+
+    private final HikariPoolMetrics hikariPoolMetrics;
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource && dataSource.getMetricsTrackerFactory() == null) {
+            dataSource.setMetricsTrackerFactory(hikariPoolMetrics);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.sqltuning.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HikariCPのコネクション取得待ち時間の計測
+ *
+ * HikariDataSourceにMetricsTrackerFactoryとして登録され（HikariMetricsPostProcessor）、
+ * getConnection()のたびに取得までの待ち時間とタイムアウトを記録する。
+ * 値はプール全体の累積なので、区間の値は前後のスナップショットの差分で求める。
+ */
+@Component
+public class HikariPoolMetrics implements MetricsTrackerFactory {
+
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquireLatency.record(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    public Histogram acquireSnapshot() {
+        return acquireLatency.snapshot();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.sqltuning.metrics;
+
+import com.example.sqltuning.dto.LatencySummary;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * ナノ秒単位のレイテンシヒストグラム
+ *
+ * HdrHistogramのConcurrentHistogramを使用しているため、記録側はロックを取らずに
+ * 複数スレッドから同時に呼び出せる。集計時はスナップショットをコピーして読む。
+ */
+public class LatencyHistogram {
+
+    // 有効桁数3桁（誤差0.1%以内）。値域は自動拡張
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final ConcurrentHistogram histogram = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+    public void record(long nanos) {
+        histogram.recordValue(Math.max(0, nanos));
+    }
+
+    /**
+     * 現時点の内容をコピーしたヒストグラムを返す
+     */
+    public Histogram snapshot() {
+        Histogram copy = new Histogram(SIGNIFICANT_DIGITS);
+        copy.add(histogram);
+        return copy;
+    }
+
+    public LatencySummary summarize() {
+        return summarize(snapshot());
+    }
+
+    /**
+     * ヒストグラムをマイクロ秒単位のサマリーに変換する
+     */
+    public static LatencySummary summarize(Histogram histogram) {
+        LatencySummary summary = new LatencySummary();
+        summary.setCount(histogram.getTotalCount());
+        if (histogram.getTotalCount() == 0) {
+            return summary;
+        }
+        summary.setMeanMicros(toMicros(histogram.getMean()));
+        summary.setP50Micros(toMicros(histogram.getValueAtPercentile(50.0)));
+        summary.setP90Micros(toMicros(histogram.getValueAtPercentile(90.0)));
+        summary.setP95Micros(toMicros(histogram.getValueAtPercentile(95.0)));
+        summary.setP99Micros(toMicros(histogram.getValueAtPercentile(99.0)));
+        summary.setMaxMicros(toMicros(histogram.getMaxValue()));
+        return summary;
+    }
+
+    private static double toMicros(double nanos) {
+        return Math.round(nanos) / 1000.0;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.sqltuning.metrics;
+
+import com.example.sqltuning.dto.StatementMetricsResponse;
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MappedStatement（マッパーのステートメントID）ごとのSQL実行統計
+ */
+@Component
+public class SqlMetricsRegistry {
+
+    private volatile ConcurrentMap<String, StatementMetrics> statements = new ConcurrentHashMap<>();
+
+    public void record(String statementId, String commandType, long nanos, long rows, boolean failed) {
+        StatementMetrics metrics = statements.computeIfAbsent(statementId, id -> new StatementMetrics(commandType));
+        metrics.latency.record(nanos);
+        metrics.rows.add(rows);
+        if (failed) {
+            metrics.errors.increment();
+        }
+    }
+
+    /**
+     * 合計実行時間の降順で全ステートメントの統計を返す
+     */
+    public List<StatementMetricsResponse> snapshot() {
+        return statements.entrySet().stream()
+                .map(entry -> toResponse(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingDouble(StatementMetricsResponse::getTotalTimeMs).reversed())
+                .toList();
+    }
+
+    /**
+     * ステートメントの実行例（バインド前のSQLとバインド値）を記録する。最初の1件のみ保持する
+     */
+    public void recordSample(String statementId, String sql, List<Object> parameters) {
+        StatementMetrics metrics = statements.get(statementId);
+        if (metrics != null && metrics.sample == null) {
+            metrics.sample = new StatementSample(sql, parameters);
+        }
+    }
+
+    public boolean hasSample(String statementId) {
+        StatementMetrics metrics = statements.get(statementId);
+        return metrics != null && metrics.sample != null;
+    }
+
+    /**
+     * 実行例を持つステートメントを合計実行時間の降順で返す（インデックスアドバイザー用）
+     */
+    public List<WorkloadStatement> workload() {
+        return statements.entrySet().stream()
+                .filter(entry -> entry.getValue().sample != null)
+                .map(entry -> {
+                    Histogram histogram = entry.getValue().latency.snapshot();
+                    return new WorkloadStatement(
+                            entry.getKey(),
+                            entry.getValue().commandType,
+                            histogram.getTotalCount(),
+                            histogram.getTotalCount() * histogram.getMean() / 1_000_000.0,
+                            entry.getValue().sample);
+                })
+                .sorted(Comparator.comparingDouble(WorkloadStatement::totalTimeMs).reversed())
+                .toList();
+    }
+
+    public void reset() {
+        statements = new ConcurrentHashMap<>();
+    }
+
+    private StatementMetricsResponse toResponse(String statementId, StatementMetrics metrics) {
+        Histogram histogram = metrics.latency.snapshot();
+        double totalTimeMs = histogram.getTotalCount() * histogram.getMean() / 1_000_000.0;
+        return new StatementMetricsResponse(
+                statementId,
+                metrics.commandType,
+                metrics.errors.sum(),
+                metrics.rows.sum(),
+                Math.round(totalTimeMs * 1000) / 1000.0,
+                LatencyHistogram.summarize(histogram));
+    }
+
+    private static class StatementMetrics {
+        private final String commandType;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private volatile StatementSample sample;
+
+        private StatementMetrics(String commandType) {
+            this.commandType = commandType;
+        }
+    }
+
+    public record StatementSample(String sql, List<Object> parameters) {
+    }
+
+    public record WorkloadStatement(String statementId, String commandType, long executions,
+                                    double totalTimeMs, StatementSample sample) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.sqltuning.mybatis;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BoundSqlの「?」に実際にバインドされる値を取り出すユーティリティ
+ *
+ * MyBatisのDefaultParameterHandlerと同じ順序・同じ規則（foreachなどの追加パラメータ、
+ * TypeHandlerを持つ単一値、プロパティ参照）で値を解決する。
+ */
+public final class BoundParameters {
+
+    private BoundParameters() {
+    }
+
+    public static List<Object> extract(MappedStatement mappedStatement, BoundSql boundSql) {
+        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+        if (parameterMappings == null || parameterMappings.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Configuration configuration = mappedStatement.getConfiguration();
+        Object parameterObject = boundSql.getParameterObject();
+        MetaObject metaObject = null;
+
+        List<Object> values = new ArrayList<>(parameterMappings.size());
+        for (ParameterMapping parameterMapping : parameterMappings) {
+            if (parameterMapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String property = parameterMapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameterObject == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+                value = parameterObject;
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameterObject);
+                }
+                value = metaObject.getValue(property);
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    /**
+     * JDBCのsetObjectにそのまま渡せる値にする（列挙型は名前、それ以外はそのまま）
+     */
+    public static Object toJdbcValue(Object value) {
+        return value instanceof Enum<?> e ? e.name() : value;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.sqltuning.mybatis;
+
+import com.example.sqltuning.dto.PageResponse;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * fieldsパラメーター（カンマ区切りのプロパティ名）をSELECTのカラムリストに変換する
+ *
+ * 指定できるプロパティはマッパーXMLのResultMapに定義されたものだけで、
+ * カラム名もResultMapから取るため、${} で埋め込んでもSQLインジェクションにならない。
+ * キーセットページネーションで使うため、ID（&lt;id&gt;）は指定がなくても常に含める。
+ */
+@Component
+public class FieldProjection {
+
+    private final Configuration configuration;
+    // ResultMap ID → (プロパティ名 → カラム名)
+    private final Map<String, Map<String, String>> whitelists = new ConcurrentHashMap<>();
+
+    public FieldProjection(SqlSessionFactory sqlSessionFactory) {
+        this.configuration = sqlSessionFactory.getConfiguration();
+    }
+
+    /**
+     * @param resultMapId ResultMapの完全修飾ID（例: com.example.sqltuning.mapper.FilmMapper.FilmResultMap）
+     * @param fields      カンマ区切りのプロパティ名
+     */
+    public Projection resolve(String resultMapId, String fields) {
+        Map<String, String> whitelist = whitelists.computeIfAbsent(resultMapId, this::loadWhitelist);
+        ResultMap resultMap = configuration.getResultMap(resultMapId);
+
+        Set<String> properties = new LinkedHashSet<>();
+        for (ResultMapping idMapping : resultMap.getIdResultMappings()) {
+            properties.add(idMapping.getProperty());
+        }
+        for (String field : fields.split(",")) {
+            String property = field.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            if (!whitelist.containsKey(property)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "指定できないフィールドです: " + property + "（指定可能: " + String.join(", ", whitelist.keySet()) + "）");
+            }
+            properties.add(property);
+        }
+        List<String> columns = properties.stream().map(whitelist::get).toList();
+        return new Projection(List.copyOf(properties), columns);
+    }
+
+    /**
+     * 取得したエンティティから指定されたプロパティだけを取り出す
+     */
+    public List<Map<String, Object>> toMaps(Projection projection, List<?> rows) {
+        List<Map<String, Object>> maps = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            MetaObject metaObject = configuration.newMetaObject(row);
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (String property : projection.properties()) {
+                map.put(property, metaObject.getValue(property));
+            }
+            maps.add(map);
+        }
+        return maps;
+    }
+
+    public PageResponse<Map<String, Object>> toMaps(Projection projection, PageResponse<?> page) {
+        return new PageResponse<>(toMaps(projection, page.getItems()),
+                page.getLimit(), page.getHasMore(), page.getNextToken());
+    }
+
+    private Map<String, String> loadWhitelist(String resultMapId) {
+        Map<String, String> whitelist = new LinkedHashMap<>();
+        for (ResultMapping mapping : configuration.getResultMap(resultMapId).getResultMappings()) {
+            // ネストしたResultMapやselectによる関連は対象外
+            if (mapping.getColumn() != null && mapping.getNestedResultMapId() == null
+                    && mapping.getNestedQueryId() == null) {
+                whitelist.put(mapping.getProperty(), mapping.getColumn());
+            }
+        }
+        return whitelist;
+    }
+
+    public record Projection(List<String> properties, List<String> columns) {
+    }
+}
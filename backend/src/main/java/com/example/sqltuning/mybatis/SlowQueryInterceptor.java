@@ -0,0 +1,73 @@
+package com.example.sqltuning.mybatis;
+
+import com.example.sqltuning.diagnostics.SlowQueryLog;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * しきい値を超えたSQLをバインド値付きでSlowQueryLogに記録するMyBatisプラグイン
+ *
+ * 全マッパーが対象。しきい値以下の文ではBoundSqlの生成やパラメータの取り出しを行わないため、
+ * 通常のリクエストでの追加コストは時間計測のみ。EXPLAINはSlowQueryExplainWorkerが非同期で実行する。
+ */
+@Component
+@RequiredArgsConstructor
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class SlowQueryInterceptor implements Interceptor {
+
+    private final SlowQueryLog slowQueryLog;
+
+    @Value("${diagnostics.slow-query.enabled:true}")
+    private boolean enabled;
+
+    @Value("${diagnostics.slow-query.threshold-ms:100}")
+    private long thresholdMs;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (!enabled) {
+            return invocation.proceed();
+        }
+        long startTime = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsedNanos = System.nanoTime() - startTime;
+            if (elapsedNanos >= thresholdMs * 1_000_000L) {
+                capture(invocation.getArgs(), elapsedNanos);
+            }
+        }
+    }
+
+    private void capture(Object[] args, long elapsedNanos) {
+        MappedStatement mappedStatement = (MappedStatement) args[0];
+        BoundSql boundSql = args.length == 6
+                ? (BoundSql) args[5]
+                : mappedStatement.getBoundSql(args[1]);
+        slowQueryLog.record(
+                mappedStatement.getId(),
+                mappedStatement.getSqlCommandType(),
+                boundSql.getSql(),
+                BoundParameters.extract(mappedStatement, boundSql),
+                elapsedNanos);
+    }
+}
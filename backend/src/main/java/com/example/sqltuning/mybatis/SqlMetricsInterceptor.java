@@ -0,0 +1,104 @@
+package com.example.sqltuning.mybatis;
+
+import com.example.sqltuning.metrics.SqlMetricsRegistry;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.util.Collection;
+
+/**
+ * 全マッパーのSQL実行時間をナノ秒単位で計測するMyBatisプラグイン
+ *
+ * サービス層で個別に計測していない文（explainQuery、findLanguageNameByIdなど）も含めて、
+ * MappedStatementごとのレイテンシ分布と処理行数をSqlMetricsRegistryに記録する。
+ * StatementHandlerで計測するため、JDBCで実際に実行した文だけが対象になる
+ * （2次キャッシュ・ローカルキャッシュのヒットは含まれない。接続の取得とprepareの時間も含まない）。
+ * カーソル（queryCursor）は実行までの時間のみを計測する。
+ * SELECTはステートメントごとに最初の1回だけ、バインド値付きの実行例も記録する。
+ */
+@Component
+@RequiredArgsConstructor
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query",
+                args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "queryCursor",
+                args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "update",
+                args = {Statement.class})
+})
+public class SqlMetricsInterceptor implements Interceptor {
+
+    private final SqlMetricsRegistry sqlMetricsRegistry;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        StatementHandler statementHandler = (StatementHandler) invocation.getTarget();
+        MappedStatement mappedStatement = mappedStatementOf(statementHandler);
+        long startTime = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            sqlMetricsRegistry.record(
+                    mappedStatement.getId(),
+                    mappedStatement.getSqlCommandType().name(),
+                    System.nanoTime() - startTime,
+                    rowCount(result),
+                    failed);
+            if (!failed) {
+                recordSample(mappedStatement, statementHandler.getBoundSql());
+            }
+        }
+    }
+
+    /**
+     * StatementHandlerが実行しているMappedStatement
+     * （ConfigurationはRoutingStatementHandlerを返すため、委譲先のハンドラーから取り出す）
+     */
+    static MappedStatement mappedStatementOf(StatementHandler statementHandler) {
+        MetaObject metaObject = SystemMetaObject.forObject(statementHandler);
+        String property = metaObject.hasGetter("delegate") ? "delegate.mappedStatement" : "mappedStatement";
+        return (MappedStatement) metaObject.getValue(property);
+    }
+
+    /**
+     * SELECTの実行例をステートメントごとに1件だけ記録する（インデックスアドバイザーのEXPLAIN用）
+     */
+    private void recordSample(MappedStatement mappedStatement, BoundSql boundSql) {
+        if (mappedStatement.getSqlCommandType() != SqlCommandType.SELECT
+                || sqlMetricsRegistry.hasSample(mappedStatement.getId())) {
+            return;
+        }
+        sqlMetricsRegistry.recordSample(
+                mappedStatement.getId(),
+                boundSql.getSql(),
+                BoundParameters.extract(mappedStatement, boundSql).stream()
+                        .map(BoundParameters::toJdbcValue)
+                        .toList());
+    }
+
+    private long rowCount(Object result) {
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        if (result instanceof Integer updated) {
+            return updated;
+        }
+        return 0;
+    }
+}
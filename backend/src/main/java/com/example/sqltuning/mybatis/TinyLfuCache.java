@@ -0,0 +1,268 @@
+package com.example.sqltuning.mybatis;
+
+import com.example.sqltuning.dto.CacheMetricsResponse;
+import org.apache.ibatis.builder.InitializingObject;
+import org.apache.ibatis.cache.Cache;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * W-TinyLFU方式で追い出すMyBatisの2次キャッシュ
+ *
+ * 新しいエントリはまず小さなウィンドウ（LRU、全体の1%）に入り、ウィンドウから溢れたものは
+ * メイン領域（SLRU: probation / protected）の追い出し候補とFrequencySketchの推定頻度を比べて、
+ * 頻度が高い方だけが残る。一度しか参照されないキー（一覧の走査など）で人気のエントリが
+ * 押し出されにくい。
+ *
+ * マッパーXMLの &lt;cache type="..."&gt; で指定し、maximumSize・ttl（ミリ秒、0で無期限）を
+ * property で設定する。同じ名前空間のINSERT/UPDATE/DELETE/DDL（flushCache）で全件破棄される。
+ * MyBatisはカスタムキャッシュをシリアライズしないため、取得したエンティティは変更しないこと。
+ * 統計はnamespaceごとに snapshot() で参照できる。
+ */
+public class TinyLfuCache implements Cache, InitializingObject {
+
+    private static final Map<String, TinyLfuCache> REGISTRY = new ConcurrentHashMap<>();
+
+    private final String id;
+    private int maximumSize = 1000;
+    private long ttl;
+
+    private final Map<Object, Node> data = new HashMap<>();
+    // 挿入順（先頭が最も古い）。参照時は削除して末尾に入れ直す
+    private final LinkedHashMap<Object, Node> window = new LinkedHashMap<>();
+    private final LinkedHashMap<Object, Node> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<Object, Node> protectedSegment = new LinkedHashMap<>();
+    private FrequencySketch sketch;
+    private int windowMax;
+    private int mainMax;
+    private int protectedMax;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public TinyLfuCache(String id) {
+        this.id = id;
+    }
+
+    public void setMaximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    @Override
+    public void initialize() {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSizeは1以上を指定してください: " + id);
+        }
+        windowMax = Math.max(1, maximumSize / 100);
+        mainMax = maximumSize - windowMax;
+        protectedMax = mainMax * 4 / 5;
+        sketch = new FrequencySketch(maximumSize);
+        REGISTRY.put(id, this);
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public synchronized Object getObject(Object key) {
+        sketch.increment(key);
+        Node node = data.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        if (node.isExpired(System.currentTimeMillis())) {
+            remove(node);
+            expirations.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        onAccess(node);
+        return node.value;
+    }
+
+    @Override
+    public synchronized void putObject(Object key, Object value) {
+        long expiresAt = ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE;
+        Node node = data.get(key);
+        if (node != null) {
+            node.value = value;
+            node.expiresAt = expiresAt;
+            onAccess(node);
+            return;
+        }
+        // 頻度はgetObject()（ミス時も含む）でだけ数える。ここでも数えるとミスからの読み込みが2回分になる
+        node = new Node(key, value, expiresAt);
+        data.put(key, node);
+        node.segment = Segment.WINDOW;
+        window.put(key, node);
+        if (window.size() > windowMax) {
+            admit(pollFirst(window));
+        }
+    }
+
+    @Override
+    public synchronized Object removeObject(Object key) {
+        Node node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        remove(node);
+        return node.value;
+    }
+
+    @Override
+    public synchronized void clear() {
+        data.clear();
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+        invalidations.increment();
+    }
+
+    @Override
+    public synchronized int getSize() {
+        return data.size();
+    }
+
+    /**
+     * 参照されたエントリを移動する（probationで再参照されたものはprotectedへ昇格）
+     */
+    private void onAccess(Node node) {
+        switch (node.segment) {
+            case WINDOW -> moveToTail(window, node);
+            case PROTECTED -> moveToTail(protectedSegment, node);
+            case PROBATION -> {
+                probation.remove(node.key);
+                node.segment = Segment.PROTECTED;
+                protectedSegment.put(node.key, node);
+                if (protectedSegment.size() > protectedMax) {
+                    Node demoted = pollFirst(protectedSegment);
+                    demoted.segment = Segment.PROBATION;
+                    probation.put(demoted.key, demoted);
+                }
+            }
+        }
+    }
+
+    /**
+     * ウィンドウから溢れた候補をメイン領域に入れるかどうかを頻度で判定する
+     */
+    private void admit(Node candidate) {
+        if (probation.size() + protectedSegment.size() < mainMax) {
+            candidate.segment = Segment.PROBATION;
+            probation.put(candidate.key, candidate);
+            return;
+        }
+        if (mainMax == 0) {
+            evict(candidate);
+            return;
+        }
+        Node victim = !probation.isEmpty() ? firstOf(probation) : firstOf(protectedSegment);
+        if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+            remove(victim);
+            evictions.increment();
+            candidate.segment = Segment.PROBATION;
+            probation.put(candidate.key, candidate);
+        } else {
+            evict(candidate);
+        }
+    }
+
+    private void evict(Node node) {
+        data.remove(node.key);
+        evictions.increment();
+    }
+
+    private void remove(Node node) {
+        data.remove(node.key);
+        segmentOf(node).remove(node.key);
+    }
+
+    private LinkedHashMap<Object, Node> segmentOf(Node node) {
+        return switch (node.segment) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            case PROTECTED -> protectedSegment;
+        };
+    }
+
+    private static void moveToTail(LinkedHashMap<Object, Node> segment, Node node) {
+        segment.remove(node.key);
+        segment.put(node.key, node);
+    }
+
+    private static Node firstOf(LinkedHashMap<Object, Node> segment) {
+        return segment.values().iterator().next();
+    }
+
+    private static Node pollFirst(LinkedHashMap<Object, Node> segment) {
+        Iterator<Node> iterator = segment.values().iterator();
+        Node node = iterator.next();
+        iterator.remove();
+        return node;
+    }
+
+    public CacheMetricsResponse stats() {
+        CacheMetricsResponse response = new CacheMetricsResponse();
+        response.setNamespace(id);
+        response.setMaximumSize(maximumSize);
+        response.setTtlMs(ttl);
+        response.setSize(getSize());
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        response.setHits(hitCount);
+        response.setMisses(missCount);
+        response.setHitRatio(hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount));
+        response.setEvictions(evictions.sum());
+        response.setExpirations(expirations.sum());
+        response.setInvalidations(invalidations.sum());
+        return response;
+    }
+
+    /**
+     * 全namespaceのキャッシュ統計
+     */
+    public static List<CacheMetricsResponse> snapshot() {
+        return REGISTRY.values().stream()
+                .map(TinyLfuCache::stats)
+                .sorted(Comparator.comparing(CacheMetricsResponse::getNamespace))
+                .toList();
+    }
+
+    private enum Segment { WINDOW, PROBATION, PROTECTED }
+
+    private static final class Node {
+        private final Object key;
+        private Object value;
+        private long expiresAt;
+        private Segment segment;
+
+        private Node(Object key, Object value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -24,6 +24,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -39,10 +40,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getUsernameFromToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // 検証済みトークンとUserDetailsはキャッシュされるため、定常状態では署名検証もDBアクセスも発生しない
+            String username = StringUtils.hasText(jwt) ? jwtTokenProvider.getVerifiedUsername(jwt) : null;
+            if (username != null) {
+                UserDetails userDetails = loadUserDetails(username);
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -57,6 +58,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails loadUserDetails(String username) {
+        UserDetails userDetails = userDetailsCache.getUserFromCache(username);
+        if (userDetails == null) {
+            userDetails = userDetailsService.loadUserByUsername(username);
+            userDetailsCache.putUserInCache(userDetails);
+        }
+        return userDetails;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
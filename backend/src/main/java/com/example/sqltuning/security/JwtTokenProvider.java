@@ -1,7 +1,10 @@
 package com.example.sqltuning.security;
 
+import com.example.sqltuning.support.ExpiringCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -10,6 +13,9 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 
 @Component
@@ -22,9 +28,27 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
+    @Value("${jwt.cache.max-entries:10000}")
+    private int verifiedTokenCacheMaxEntries;
+
+    // 署名鍵とパーサーは不変なので起動時に1回だけ生成する
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // 検証済みトークン（キーはトークンのSHA-256、値はユーザー名、トークンのexpで失効）
+    private ExpiringCache<String, String> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = new ExpiringCache<>(jwtExpirationMs, verifiedTokenCacheMaxEntries);
+    }
+
     private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
     }
 
     public String generateToken(Authentication authentication) {
@@ -41,9 +65,7 @@ public class JwtTokenProvider {
     }
 
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        Claims claims = jwtParser
                 .parseClaimsJws(token)
                 .getBody();
 
@@ -51,12 +73,35 @@ public class JwtTokenProvider {
     }
 
     public boolean validateToken(String token) {
+        return getVerifiedUsername(token) != null;
+    }
+
+    /**
+     * トークンを検証してユーザー名を返す（無効な場合はnull）
+     *
+     * 署名検証済みのトークンはexpまでキャッシュし、同じトークンの2回目以降は
+     * 署名検証とパースを省略する。無効なトークンはキャッシュしない。
+     */
+    public String getVerifiedUsername(String token) {
+        String cacheKey = hash(token);
+        String cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            Claims claims = jwtParser
+                    .parseClaimsJws(token)
+                    .getBody();
+            String username = claims.getSubject();
+            if (username == null) {
+                return null;
+            }
+            long expiresAt = claims.getExpiration() != null
+                    ? claims.getExpiration().getTime()
+                    : System.currentTimeMillis() + jwtExpirationMs;
+            verifiedTokens.put(cacheKey, username, expiresAt);
+            return username;
         } catch (SecurityException e) {
             log.error("無効なJWT署名: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -68,6 +113,20 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException e) {
             log.error("JWTクレームが空です: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    public int getVerifiedTokenCacheSize() {
+        return verifiedTokens.size();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256が利用できません", e);
+        }
     }
 }
@@ -0,0 +1,101 @@
+package com.example.sqltuning.security;
+
+import com.example.sqltuning.dto.LoginMetricsResponse;
+import com.example.sqltuning.metrics.LatencyHistogram;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * ログイン時のパスワード照合（BCrypt）専用のスレッドプール
+ *
+ * BCryptはCPUを大きく消費するため、リクエストスレッドで実行するとログインの集中時に
+ * Tomcatのワーカーが埋まり、映画などの参照APIまで応答できなくなる。
+ * CPUコア数のスレッドと上限付きキューで処理し、キューが満杯の場合は即座に拒否する。
+ */
+@Component
+@Slf4j
+public class PasswordVerificationExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final LatencyHistogram queueWaitLatency = new LatencyHistogram();
+    private final LatencyHistogram verificationLatency = new LatencyHistogram();
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordVerificationExecutor(@Value("${auth.login.threads:0}") int threads,
+                                        @Value("${auth.login.queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new NamedThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("パスワード照合スレッドプール: スレッド数 {}, キュー上限 {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * 照合処理をプールに投入する
+     *
+     * @throws RejectedExecutionException キューが満杯の場合
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long startTime = System.nanoTime();
+                queueWaitLatency.record(startTime - submittedAt);
+                try {
+                    return task.get();
+                } finally {
+                    verificationLatency.record(System.nanoTime() - startTime);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    public LoginMetricsResponse snapshot() {
+        LoginMetricsResponse response = new LoginMetricsResponse();
+        response.setPoolSize(executor.getMaximumPoolSize());
+        response.setActiveThreads(executor.getActiveCount());
+        response.setQueueDepth(executor.getQueue().size());
+        response.setQueueCapacity(queueCapacity);
+        response.setCompleted(executor.getCompletedTaskCount());
+        response.setRejected(rejected.sum());
+        response.setQueueWait(queueWaitLatency.summarize());
+        response.setVerification(verificationLatency.summarize());
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-verify-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.sqltuning.security;
+
+import com.example.sqltuning.support.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * JWT認証フィルター用のUserDetailsキャッシュ（TTL付き）
+ *
+ * 認証済みリクエストのたびにusersテーブルを参照しないよう、
+ * ロードしたUserDetailsを一定時間保持する。ロールやパスワードの変更は
+ * TTLが切れるまで反映されない。
+ */
+@Component
+public class UserDetailsCache implements UserCache {
+
+    private final ExpiringCache<String, UserDetails> cache;
+
+    public UserDetailsCache(@Value("${security.user-cache.ttl:60000}") long ttlMillis,
+                            @Value("${security.user-cache.max-entries:1000}") int maxEntries) {
+        this.cache = new ExpiringCache<>(ttlMillis, maxEntries);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return cache.get(username);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), user);
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidate(username);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+}
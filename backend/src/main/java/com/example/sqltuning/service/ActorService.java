@@ -1,19 +1,34 @@
 package com.example.sqltuning.service;
 
+import com.example.sqltuning.dto.BatchLookupResponse;
+import com.example.sqltuning.dto.PageResponse;
 import com.example.sqltuning.entity.Actor;
 import com.example.sqltuning.mapper.ActorMapper;
+import com.example.sqltuning.mybatis.FieldProjection;
+import com.example.sqltuning.support.BatchLookup;
+import com.example.sqltuning.support.KeysetPagination;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ActorService {
 
+    // fieldsで指定できるプロパティはこのResultMapのもの
+    private static final String ACTOR_RESULT_MAP = ActorMapper.class.getName() + ".ActorResultMap";
+
     private final ActorMapper actorMapper;
+    private final FieldProjection fieldProjection;
+
+    // /actors/batch で1リクエストに指定できるIDの上限
+    @Value("${batch-lookup.max-ids:5000}")
+    private int batchLookupMaxIds;
 
     public List<Actor> getAllActors() {
         long startTime = System.currentTimeMillis();
@@ -23,6 +38,47 @@ public class ActorService {
         return actors;
     }
 
+    public PageResponse<Actor> getActorsPage(Integer after, String token, Integer limit) {
+        Integer afterId = KeysetPagination.resolveAfter("actors", after, token);
+        int pageSize = KeysetPagination.clampLimit(limit);
+
+        long startTime = System.currentTimeMillis();
+        List<Actor> actors = actorMapper.findActorsAfter(afterId, pageSize + 1);
+        long endTime = System.currentTimeMillis();
+        log.info("getActorsPage実行時間: {}ms, after: {}, 取得件数: {}", (endTime - startTime), afterId, actors.size());
+        return KeysetPagination.toPage("actors", actors, pageSize, Actor::getActorId);
+    }
+
+    /**
+     * 指定したフィールドだけの全件（?fields=）
+     */
+    public List<Map<String, Object>> getAllActors(String fields) {
+        FieldProjection.Projection projection = fieldProjection.resolve(ACTOR_RESULT_MAP, fields);
+        long startTime = System.currentTimeMillis();
+        List<Actor> actors = actorMapper.findActorColumnsAfter(projection.columns(), null, null);
+        long endTime = System.currentTimeMillis();
+        log.info("getAllActors実行時間: {}ms, カラム: {}, 取得件数: {}",
+                (endTime - startTime), projection.columns(), actors.size());
+        return fieldProjection.toMaps(projection, actors);
+    }
+
+    /**
+     * 指定したフィールドだけのページ（?fields=）
+     */
+    public PageResponse<Map<String, Object>> getActorsPage(Integer after, String token, Integer limit, String fields) {
+        Integer afterId = KeysetPagination.resolveAfter("actors", after, token);
+        int pageSize = KeysetPagination.clampLimit(limit);
+        FieldProjection.Projection projection = fieldProjection.resolve(ACTOR_RESULT_MAP, fields);
+
+        long startTime = System.currentTimeMillis();
+        List<Actor> actors = actorMapper.findActorColumnsAfter(projection.columns(), afterId, pageSize + 1);
+        long endTime = System.currentTimeMillis();
+        log.info("getActorsPage実行時間: {}ms, after: {}, カラム: {}, 取得件数: {}",
+                (endTime - startTime), afterId, projection.columns(), actors.size());
+        return fieldProjection.toMaps(projection,
+                KeysetPagination.toPage("actors", actors, pageSize, Actor::getActorId));
+    }
+
     public List<Actor> searchActorsByName(String name) {
         long startTime = System.currentTimeMillis();
         List<Actor> actors = actorMapper.findActorsByName(name);
@@ -35,4 +91,15 @@ public class ActorService {
     public Actor getActorById(Integer actorId) {
         return actorMapper.findActorById(actorId);
     }
+
+    /**
+     * IDリストで俳優を一括取得（リクエストの順序で返し、見つからないIDは found=false）
+     */
+    public BatchLookupResponse<Actor> getActorsByIds(List<Integer> actorIds) {
+        BatchLookupResponse<Actor> response =
+                BatchLookup.lookup(actorIds, batchLookupMaxIds, actorMapper::findActorsByIds);
+        log.info("getActorsByIds実行時間: {}ms, 指定件数: {}, 取得件数: {}, クエリ回数: {}",
+                response.getExecutionTimeMs(), response.getRequested(), response.getFound(), response.getQueryCount());
+        return response;
+    }
 }
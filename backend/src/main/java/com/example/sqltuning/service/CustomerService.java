@@ -1,20 +1,28 @@
 package com.example.sqltuning.service;
 
 import com.example.sqltuning.dto.CustomerResponse;
+import com.example.sqltuning.dto.PageResponse;
 import com.example.sqltuning.entity.Customer;
 import com.example.sqltuning.mapper.CustomerMapper;
+import com.example.sqltuning.mybatis.FieldProjection;
+import com.example.sqltuning.support.KeysetPagination;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CustomerService {
 
+    // fieldsで指定できるプロパティはこのResultMapのもの
+    private static final String CUSTOMER_RESULT_MAP = CustomerMapper.class.getName() + ".CustomerResultMap";
+
     private final CustomerMapper customerMapper;
+    private final FieldProjection fieldProjection;
 
     public CustomerResponse getAllCustomersSlow() {
         String sql = 
@@ -53,6 +61,34 @@ public class CustomerService {
         return new CustomerResponse(customers, sql, executionTime);
     }
 
+    public PageResponse<Customer> getCustomersPage(Integer after, String token, Integer limit) {
+        Integer afterId = KeysetPagination.resolveAfter("customers", after, token);
+        int pageSize = KeysetPagination.clampLimit(limit);
+
+        long startTime = System.currentTimeMillis();
+        List<Customer> customers = customerMapper.findCustomersAfter(afterId, pageSize + 1);
+        long endTime = System.currentTimeMillis();
+        log.info("getCustomersPage実行時間: {}ms, after: {}, 取得件数: {}", (endTime - startTime), afterId, customers.size());
+        return KeysetPagination.toPage("customers", customers, pageSize, Customer::getCustomerId);
+    }
+
+    /**
+     * 指定したフィールドだけのページ（?fields=）
+     */
+    public PageResponse<Map<String, Object>> getCustomersPage(Integer after, String token, Integer limit, String fields) {
+        Integer afterId = KeysetPagination.resolveAfter("customers", after, token);
+        int pageSize = KeysetPagination.clampLimit(limit);
+        FieldProjection.Projection projection = fieldProjection.resolve(CUSTOMER_RESULT_MAP, fields);
+
+        long startTime = System.currentTimeMillis();
+        List<Customer> customers = customerMapper.findCustomerColumnsAfter(projection.columns(), afterId, pageSize + 1);
+        long endTime = System.currentTimeMillis();
+        log.info("getCustomersPage実行時間: {}ms, after: {}, カラム: {}, 取得件数: {}",
+                (endTime - startTime), afterId, projection.columns(), customers.size());
+        return fieldProjection.toMaps(projection,
+                KeysetPagination.toPage("customers", customers, pageSize, Customer::getCustomerId));
+    }
+
     public Customer getCustomerByEmail(String email) {
         return customerMapper.findCustomerByEmail(email);
     }
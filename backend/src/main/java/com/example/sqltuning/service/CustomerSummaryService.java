@@ -0,0 +1,124 @@
+package com.example.sqltuning.service;
+
+import com.example.sqltuning.dto.PageResponse;
+import com.example.sqltuning.dto.SummaryRefreshResponse;
+import com.example.sqltuning.entity.Customer;
+import com.example.sqltuning.mapper.CustomerMapper;
+import com.example.sqltuning.mapper.CustomerSummaryMapper;
+import com.example.sqltuning.support.KeysetPagination;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 顧客＋住所の読み取りモデル（customer_address_summary）
+ *
+ * customer・address・city・countryのJOIN結果をサマリーテーブルに保持し、
+ * last_updateのウォーターマークで差分更新する。更新はUPSERT・削除・ウォーターマークの保存を
+ * 1トランザクションで行うため、途中で失敗しても次回は同じ起点からやり直される。
+ * 削除はDELETEトリガーが記録するトゥームストーン（customer_tombstone）を同じウォーターマークで取り込み、
+ * サマリー全体を走査するアンチジョインは全件更新のときだけ行う。
+ * ウォーターマークはDBの時刻で更新開始時に取得する（これより前に開始して後からコミットされた
+ * 長いトランザクションの変更は取りこぼす可能性がある）。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerSummaryService {
+
+    private static final String READ_MODEL = "customer_address_summary";
+    private static final String PAGE_RESOURCE = "customers-with-address";
+
+    private final CustomerSummaryMapper customerSummaryMapper;
+    private final CustomerMapper customerMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    // 定期的な差分更新を行うかどうか（サマリーテーブルの作成後に有効化する）
+    @Value("${customer-summary.scheduled-refresh:false}")
+    private boolean scheduledRefreshEnabled;
+
+    /**
+     * サマリーテーブルから住所付きの顧客を取得
+     */
+    public PageResponse<Customer> getSummaryPage(Integer after, String token, Integer limit, String country) {
+        Integer afterId = KeysetPagination.resolveAfter(PAGE_RESOURCE, after, token);
+        int pageSize = KeysetPagination.clampLimit(limit);
+
+        long startTime = System.currentTimeMillis();
+        List<Customer> customers = customerSummaryMapper.findCustomersWithAddressAfter(afterId, country, pageSize + 1);
+        long endTime = System.currentTimeMillis();
+        log.info("getSummaryPage実行時間: {}ms, after: {}, 国: {}, 取得件数: {}",
+                (endTime - startTime), afterId, country, customers.size());
+        return KeysetPagination.toPage(PAGE_RESOURCE, customers, pageSize, Customer::getCustomerId);
+    }
+
+    /**
+     * 4テーブルJOINで住所付きの顧客を取得（サマリーとの比較用）
+     */
+    public PageResponse<Customer> getLivePage(Integer after, String token, Integer limit, String country) {
+        Integer afterId = KeysetPagination.resolveAfter(PAGE_RESOURCE, after, token);
+        int pageSize = KeysetPagination.clampLimit(limit);
+
+        long startTime = System.currentTimeMillis();
+        List<Customer> customers = customerMapper.findCustomersWithAddressAfter(afterId, country, pageSize + 1);
+        long endTime = System.currentTimeMillis();
+        log.info("getLivePage実行時間: {}ms, after: {}, 国: {}, 取得件数: {}",
+                (endTime - startTime), afterId, country, customers.size());
+        return KeysetPagination.toPage(PAGE_RESOURCE, customers, pageSize, Customer::getCustomerId);
+    }
+
+    /**
+     * 前回の更新以降の変更をサマリーテーブルに反映する（初回は全件）
+     */
+    public SummaryRefreshResponse refresh() {
+        return transactionTemplate.execute(status -> {
+            long startTime = System.currentTimeMillis();
+            LocalDateTime watermark = customerSummaryMapper.findDatabaseTime();
+            LocalDateTime since = customerSummaryMapper.findWatermark(READ_MODEL);
+
+            // 削除してから再投入する（同じ区間で削除後に同じIDで再登録された顧客を残すため）
+            int deleted;
+            if (since == null) {
+                deleted = customerSummaryMapper.deleteRemovedCustomers();
+                customerSummaryMapper.purgeTombstones(watermark);
+            } else {
+                deleted = customerSummaryMapper.deleteTombstonedCustomers(since);
+                customerSummaryMapper.purgeTombstones(since);
+            }
+            int upserted = customerSummaryMapper.upsertChangedCustomers(since);
+            customerSummaryMapper.saveWatermark(READ_MODEL, watermark);
+
+            SummaryRefreshResponse response = new SummaryRefreshResponse();
+            response.setReadModel(READ_MODEL);
+            response.setFull(since == null);
+            response.setSince(since);
+            response.setWatermark(watermark);
+            response.setUpsertedRows(upserted);
+            response.setDeletedRows(deleted);
+            response.setElapsedMs(System.currentTimeMillis() - startTime);
+            log.info("{}を更新: {}ms, 起点: {}, UPSERT: {}行, 削除: {}行",
+                    READ_MODEL, response.getElapsedMs(), since == null ? "全件" : since, upserted, deleted);
+            return response;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${customer-summary.refresh-interval-ms:60000}",
+            initialDelayString = "${customer-summary.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        if (!scheduledRefreshEnabled) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            log.warn("{}の定期更新に失敗しました: {}", READ_MODEL, e.getMessage());
+        }
+    }
+}
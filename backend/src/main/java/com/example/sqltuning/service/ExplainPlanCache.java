@@ -0,0 +1,84 @@
+package com.example.sqltuning.service;
+
+import com.example.sqltuning.mapper.FilmMapper;
+import com.example.sqltuning.support.ExpiringCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * EXPLAIN結果のキャッシュ
+ *
+ * リテラルを取り除いたSQLの形（シェイプ）をキーにするため、検索語だけが異なる
+ * 同じ形のクエリは2回目以降EXPLAINを実行しない。
+ * LIKEの前後のワイルドカード（'%...%' と '...%'）は実行計画が変わるため形に残す。
+ * インデックスの作成・削除時（invalidateAll）またはTTL経過で破棄される。
+ */
+@Component
+@Slf4j
+public class ExplainPlanCache {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final FilmMapper filmMapper;
+    private final ExpiringCache<String, List<Map<String, Object>>> plans;
+    // invalidateAll中に実行中だったEXPLAINの結果を登録しないための世代番号
+    private final AtomicLong generation = new AtomicLong();
+
+    public ExplainPlanCache(FilmMapper filmMapper,
+                            @Value("${explain.cache.ttl:300000}") long ttlMillis,
+                            @Value("${explain.cache.max-entries:256}") int maxEntries) {
+        this.filmMapper = filmMapper;
+        this.plans = new ExpiringCache<>(ttlMillis, maxEntries);
+    }
+
+    public Plan explain(String sql) {
+        String shape = normalize(sql);
+        List<Map<String, Object>> cached = plans.get(shape);
+        if (cached != null) {
+            return new Plan(cached, true);
+        }
+
+        long observedGeneration = generation.get();
+        List<Map<String, Object>> executionPlan = List.copyOf(filmMapper.explainQuery(sql));
+        if (generation.get() == observedGeneration) {
+            plans.put(shape, executionPlan);
+        }
+        return new Plan(executionPlan, false);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        plans.invalidateAll();
+        log.info("EXPLAINキャッシュをクリアしました");
+    }
+
+    /**
+     * 文字列・数値リテラルを ? に置き換え、空白を正規化したSQLの形を返す
+     * 文字列リテラルの先頭・末尾の % は残す（'%ACADEMY%' → '%?%'、'ACADEMY%' → '?%'）
+     */
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll(match -> Matcher.quoteReplacement(literalShape(match.group())));
+        shape = NUMERIC_LITERAL.matcher(shape).replaceAll("?");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toUpperCase();
+    }
+
+    private static String literalShape(String literal) {
+        String body = literal.substring(1, literal.length() - 1);
+        if (body.isEmpty() || (!body.startsWith("%") && !body.endsWith("%"))) {
+            return "?";
+        }
+        return "'" + (body.startsWith("%") ? "%" : "") + "?" + (body.length() > 1 && body.endsWith("%") ? "%" : "") + "'";
+    }
+
+    public record Plan(List<Map<String, Object>> rows, boolean cached) {
+    }
+}
@@ -1,21 +1,81 @@
 package com.example.sqltuning.service;
 
+import com.example.sqltuning.dto.BatchLookupResponse;
 import com.example.sqltuning.dto.FilmResponse;
+import com.example.sqltuning.dto.PageResponse;
 import com.example.sqltuning.entity.Film;
 import com.example.sqltuning.mapper.FilmMapper;
+import com.example.sqltuning.mybatis.FieldProjection;
+import com.example.sqltuning.support.BatchLoader;
+import com.example.sqltuning.support.BatchLookup;
+import com.example.sqltuning.support.KeysetPagination;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FilmService {
 
+    // ストリーミング時にflushする間隔（行数）
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+    // IN句1回あたりのID数
+    private static final int ID_LOOKUP_CHUNK_SIZE = 1000;
+    // FULLTEXT検索のOFFSETの上限（深いページほど読み飛ばす行が増えるため）
+    private static final int FULLTEXT_MAX_OFFSET = 1000;
+    // ngram_token_size（既定2）より短い検索語はFULLTEXTインデックスで検索できない
+    private static final int FULLTEXT_MIN_KEYWORD_LENGTH = 2;
+    // MySQLのエラーコード（ER_FT_MATCHING_KEY_NOT_FOUND: FULLTEXTインデックスがない）
+    private static final int ER_FT_MATCHING_KEY_NOT_FOUND = 1191;
+    // MySQLのエラーコード（ER_NO_SUCH_TABLE: テーブルがない）
+    private static final int ER_NO_SUCH_TABLE = 1146;
+
+    // fieldsで指定できるプロパティはこのResultMapのもの
+    private static final String FILM_RESULT_MAP = FilmMapper.class.getName() + ".FilmResultMap";
+
     private final FilmMapper filmMapper;
+    private final FieldProjection fieldProjection;
+    private final ObjectMapper objectMapper;
+    private final ExplainPlanCache explainPlanCache;
+    private final FilmTrigramIndex filmTrigramIndex;
+    // PARALLELモードのEXPLAIN用（呼び出しごとに作らず共有し、終了時に閉じる）
+    private final ExecutorService explainExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // EXPLAINの実行方式（SEQUENTIAL / PARALLEL）
+    @Value("${demo.explain.mode:SEQUENTIAL}")
+    private ExplainMode explainMode;
+
+    // /films/batch で1リクエストに指定できるIDの上限
+    @Value("${batch-lookup.max-ids:5000}")
+    private int batchLookupMaxIds;
+
+    @Value("${film.trigram.max-results:1000}")
+    private int trigramMaxResults;
 
     public List<Film> getAllFilms() {
         long startTime = System.currentTimeMillis();
@@ -25,6 +85,72 @@ public class FilmService {
         return films;
     }
 
+    public PageResponse<Film> getFilmsPage(Integer after, String token, Integer limit) {
+        Integer afterId = KeysetPagination.resolveAfter("films", after, token);
+        int pageSize = KeysetPagination.clampLimit(limit);
+
+        long startTime = System.currentTimeMillis();
+        List<Film> films = filmMapper.findFilmsAfter(afterId, pageSize + 1);
+        long endTime = System.currentTimeMillis();
+        log.info("getFilmsPage実行時間: {}ms, after: {}, 取得件数: {}", (endTime - startTime), afterId, films.size());
+        return KeysetPagination.toPage("films", films, pageSize, Film::getFilmId);
+    }
+
+    /**
+     * 指定したフィールドだけの全件（?fields=）
+     */
+    public List<Map<String, Object>> getAllFilms(String fields) {
+        FieldProjection.Projection projection = fieldProjection.resolve(FILM_RESULT_MAP, fields);
+        long startTime = System.currentTimeMillis();
+        List<Film> films = filmMapper.findFilmColumnsAfter(projection.columns(), null, null);
+        long endTime = System.currentTimeMillis();
+        log.info("getAllFilms実行時間: {}ms, カラム: {}, 取得件数: {}",
+                (endTime - startTime), projection.columns(), films.size());
+        return fieldProjection.toMaps(projection, films);
+    }
+
+    /**
+     * 指定したフィールドだけのページ（?fields=）
+     */
+    public PageResponse<Map<String, Object>> getFilmsPage(Integer after, String token, Integer limit, String fields) {
+        Integer afterId = KeysetPagination.resolveAfter("films", after, token);
+        int pageSize = KeysetPagination.clampLimit(limit);
+        FieldProjection.Projection projection = fieldProjection.resolve(FILM_RESULT_MAP, fields);
+
+        long startTime = System.currentTimeMillis();
+        List<Film> films = filmMapper.findFilmColumnsAfter(projection.columns(), afterId, pageSize + 1);
+        long endTime = System.currentTimeMillis();
+        log.info("getFilmsPage実行時間: {}ms, after: {}, カラム: {}, 取得件数: {}",
+                (endTime - startTime), afterId, projection.columns(), films.size());
+        return fieldProjection.toMaps(projection,
+                KeysetPagination.toPage("films", films, pageSize, Film::getFilmId));
+    }
+
+    /**
+     * 全映画をNDJSON（1行1映画）で出力ストリームに書き出す
+     * カーソルで1行ずつ読み込んでは書き出すため、リストを保持しない
+     */
+    @Transactional(readOnly = true)
+    public void streamAllFilms(OutputStream outputStream) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long count = 0;
+        try (Cursor<Film> cursor = filmMapper.streamAllFilms();
+             SequenceWriter writer = objectMapper.writerFor(Film.class)
+                     .withRootValueSeparator("\n")
+                     .writeValues(outputStream)) {
+            for (Film film : cursor) {
+                writer.write(film);
+                if (++count % STREAM_FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+            outputStream.write('\n');
+        }
+        long endTime = System.currentTimeMillis();
+        log.info("streamAllFilms実行時間: {}ms, 出力件数: {}", (endTime - startTime), count);
+    }
+
     public FilmResponse searchFilmsByTitleSlow(String title) {
         String sql = String.format(
             "SELECT film_id, title, description, release_year, language_id,\n" +
@@ -34,22 +160,10 @@ public class FilmService {
             "WHERE title LIKE '%%%s%%'\n" +
             "ORDER BY title", title);
         
-        long startTime = System.currentTimeMillis();
-        List<Film> films = filmMapper.findFilmsByTitleSlow(title);
-        long endTime = System.currentTimeMillis();
-        long executionTime = endTime - startTime;
-        
-        // 実行計画を取得
-        List<Map<String, Object>> executionPlan = filmMapper.explainQuery(sql);
-        
+        FilmResponse response = executeWithPlan(sql, () -> filmMapper.findFilmsByTitleSlow(title));
+
         log.info("searchFilmsByTitleSlow実行時間: {}ms, 検索語: {}, 取得件数: {}",
-                executionTime, title, films.size());
-        
-        FilmResponse response = new FilmResponse();
-        response.setFilms(films);
-        response.setExecutedSql(sql);
-        response.setExecutionTimeMs(executionTime);
-        response.setExecutionPlan(executionPlan);
+                response.getExecutionTimeMs(), title, response.getFilms().size());
         return response;
     }
 
@@ -62,45 +176,130 @@ public class FilmService {
             "WHERE title LIKE '%s%%'\n" +
             "ORDER BY title", title);
         
+        FilmResponse response = executeWithPlan(sql, () -> filmMapper.findFilmsByTitleFast(title));
+
+        log.info("searchFilmsByTitleFast実行時間: {}ms, 検索語: {}, 取得件数: {},",
+                response.getExecutionTimeMs(), title, response.getFilms().size());
+        return response;
+    }
+
+    /**
+     * タイトル部分一致検索（トライグラムインデックス使用）
+     * メモリ上のインデックスで絞り込んだ主キー検索で返す。インデックスは構築時のDBの ORDER BY title の順に
+     * 並んでいるため、先頭から最大 film.trigram.max-results 件をIN句のチャンクに分けて取得し、その順序で返す
+     * （超えた分は hasMore で示す）。照合順序の近似や % と _ の扱いなど、LIKE との違いは FilmTrigramIndex を参照
+     */
+    public FilmResponse searchFilmsByTitleIndexed(String title, boolean includeDescription) {
+        if (!filmTrigramIndex.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "トライグラムインデックスを構築中です");
+        }
+        if (includeDescription && !filmTrigramIndex.isDescriptionIndexed()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "descriptionはインデックス化されていません（film.trigram.include-description）");
+        }
+
+        if (FilmTrigramIndex.fold(title).length() < FilmTrigramIndex.MIN_TERM_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "検索語は" + FilmTrigramIndex.MIN_TERM_LENGTH + "文字以上で指定してください");
+        }
+
+        long lookupStartTime = System.nanoTime();
+        // 1件多く取得して、上限を超えたかどうかを判定する
+        List<Integer> filmIds = filmTrigramIndex.search(title, includeDescription, trigramMaxResults + 1);
+        long lookupTimeNanos = System.nanoTime() - lookupStartTime;
+        boolean hasMore = filmIds.size() > trigramMaxResults;
+        if (hasMore) {
+            filmIds = filmIds.subList(0, trigramMaxResults);
+        }
+
+        String sql =
+            "-- トライグラムインデックスで候補を絞り込み（アプリケーション内）\n" +
+            "SELECT film_id, title, description, release_year, language_id,\n" +
+            "       original_language_id, rental_duration, rental_rate, length,\n" +
+            "       replacement_cost, rating, special_features, last_update\n" +
+            "FROM film\n" +
+            "WHERE film_id IN (...)  -- " + filmIds.size() + "件の主キー（" + ID_LOOKUP_CHUNK_SIZE
+                + "件ずつ取得し、インデックスのタイトル順に並べる）";
+
         long startTime = System.currentTimeMillis();
-        List<Film> films = filmMapper.findFilmsByTitleFast(title);
+        List<Film> films = findFilmsByIdsInOrder(filmIds);
         long endTime = System.currentTimeMillis();
         long executionTime = endTime - startTime;
-        
-        // 実行計画を取得
-        List<Map<String, Object>> executionPlan = filmMapper.explainQuery(sql);
-        
-        log.info("searchFilmsByTitleFast実行時間: {}ms, 検索語: {}, 取得件数: {},",
-                executionTime, title, films.size());
-        
+
+        log.info("searchFilmsByTitleIndexed実行時間: {}ms, インデックス検索: {}μs, 検索語: {}, 取得件数: {}",
+                executionTime, lookupTimeNanos / 1000, title, films.size());
+
         FilmResponse response = new FilmResponse();
         response.setFilms(films);
         response.setExecutedSql(sql);
         response.setExecutionTimeMs(executionTime);
-        response.setExecutionPlan(executionPlan);
+        response.setIndexLookupMicros(lookupTimeNanos / 1000);
+        response.setHasMore(hasMore);
         return response;
     }
 
-    public void createTitleIndex() {
-        try {
-            log.info("Creating index on film.title...");
-            filmMapper.createTitleIndex();
-            log.info("Index created successfully");
-        } catch (Exception e) {
-            log.error("Failed to create index: {}", e.getMessage());
-            throw new RuntimeException("インデックスの作成に失敗しました: " + e.getMessage());
-        }
+    /**
+     * title・descriptionの部分一致検索（FULLTEXTインデックス、ngramパーサー使用）
+     * 検索語をフレーズとして検索し、関連度の高い順にページ単位で返す（pageは0始まり）
+     */
+    public FilmResponse searchFilmsFulltext(String keyword, Integer page, Integer limit) {
+        return searchFilmsFulltext(FulltextQuery.of(keyword, page, limit));
     }
 
-    public void dropTitleIndex() {
+    public FilmResponse searchFilmsFulltext(FulltextQuery query) {
+        String phrase = query.phrase();
+        if (phrase.codePointCount(0, phrase.length()) < FULLTEXT_MIN_KEYWORD_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "検索語は" + FULLTEXT_MIN_KEYWORD_LENGTH + "文字以上で指定してください");
+        }
+        int pageSize = query.pageSize();
+        int pageNumber = query.page();
+        long offset = (long) pageNumber * pageSize;
+        if (offset > FULLTEXT_MAX_OFFSET) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "OFFSETの上限（" + FULLTEXT_MAX_OFFSET + "件）を超えています。検索語を絞り込んでください");
+        }
+
+        String booleanQuery = "\"" + phrase + "\"";
+        String literal = booleanQuery.replace("\\", "\\\\").replace("'", "''");
+        String sql = String.format(
+            "SELECT film_id, title, description, release_year, language_id,\n" +
+            "       original_language_id, rental_duration, rental_rate, length,\n" +
+            "       replacement_cost, rating, special_features, last_update,\n" +
+            "       MATCH(title, description) AGAINST('%s' IN BOOLEAN MODE) AS relevance\n" +
+            "FROM film\n" +
+            "WHERE MATCH(title, description) AGAINST('%s' IN BOOLEAN MODE)\n" +
+            "ORDER BY relevance DESC, film_id\n" +
+            "LIMIT %d OFFSET %d", literal, literal, pageSize + 1, offset);
+
+        FilmResponse response;
         try {
-            log.info("Dropping index on film.title...");
-            filmMapper.dropTitleIndex();
-            log.info("Index dropped successfully");
-        } catch (Exception e) {
-            log.error("Failed to drop index: {}", e.getMessage());
-            throw new RuntimeException("インデックスの削除に失敗しました: " + e.getMessage());
+            response = executeWithPlan(sql,
+                    () -> filmMapper.findFilmsByFulltext(booleanQuery, (int) offset, pageSize + 1));
+        } catch (DataAccessException e) {
+            if (isMySqlError(e, ER_FT_MATCHING_KEY_NOT_FOUND)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "FULLTEXTインデックスがありません（POST /films/index/fulltext/create で作成してください）");
+            }
+            throw e;
         }
+
+        // limit + 1 件取得し、余分な1件があれば次ページあり
+        List<Film> films = response.getFilms();
+        boolean hasMore = films.size() > pageSize;
+        response.setFilms(hasMore ? films.subList(0, pageSize) : films);
+        response.setHasMore(hasMore);
+
+        log.info("searchFilmsFulltext実行時間: {}ms, 検索語: {}, ページ: {}, 取得件数: {}",
+                response.getExecutionTimeMs(), phrase, pageNumber, response.getFilms().size());
+        return response;
+    }
+
+    /**
+     * トライグラムインデックスを再構築
+     */
+    public void rebuildTrigramIndex() {
+        filmTrigramIndex.rebuild();
     }
 
     public FilmResponse getFilmsWithLanguageSlow() {
@@ -111,31 +310,50 @@ public class FilmService {
             "FROM film\n" +
             "LIMIT 100";
         
-        long startTime = System.currentTimeMillis();
-        
-        // まずfilmデータを取得
-        List<Film> films = filmMapper.findFilmsWithLanguageSlow();
-        
-        // N+1問題: 各filmに対してlanguage名を個別に取得
-        for (Film film : films) {
-            String languageName = filmMapper.findLanguageNameById(film.getLanguageId());
-            film.setLanguageName(languageName);
-        }
-        
-        long endTime = System.currentTimeMillis();
-        long executionTime = endTime - startTime;
-        
-        // 実行計画を取得
-        List<Map<String, Object>> executionPlan = filmMapper.explainQuery(sql);
-        
+        FilmResponse response = executeWithPlan(sql, () -> {
+            // まずfilmデータを取得
+            List<Film> films = filmMapper.findFilmsWithLanguageSlow();
+
+            // N+1問題: 各filmに対してlanguage名を個別に取得
+            for (Film film : films) {
+                String languageName = filmMapper.findLanguageNameById(film.getLanguageId());
+                film.setLanguageName(languageName);
+            }
+            return films;
+        });
+
         log.info("getFilmsWithLanguageSlow実行時間: {}ms, 取得件数: {}, クエリ実行回数: {}回",
-                executionTime, films.size(), films.size() + 1);
-        
-        FilmResponse response = new FilmResponse();
-        response.setFilms(films);
-        response.setExecutedSql(sql);
-        response.setExecutionTimeMs(executionTime);
-        response.setExecutionPlan(executionPlan);
+                response.getExecutionTimeMs(), response.getFilms().size(), response.getFilms().size() + 1);
+        return response;
+    }
+
+    public FilmResponse getFilmsWithLanguageBatched() {
+        String sql =
+            "SELECT film_id, title, description, release_year, language_id,\n" +
+            "       original_language_id, rental_duration, rental_rate, length,\n" +
+            "       replacement_cost, rating, special_features, last_update\n" +
+            "FROM film\n" +
+            "LIMIT 100";
+        String languageSql =
+            "SELECT language_id, name, last_update\n" +
+            "FROM language\n" +
+            "WHERE language_id IN (...)  -- 重複を除いたlanguage_id";
+
+        BatchLoader<Integer, String> languageLoader = new BatchLoader<>(this::findLanguageNamesByIds);
+        FilmResponse response = executeWithPlan(sql, sql + ";\n\n" + languageSql, () -> {
+            List<Film> films = filmMapper.findFilmsWithLanguageSlow();
+
+            // ループ内では問い合わせず、キーを登録するだけ
+            for (Film film : films) {
+                languageLoader.load(film.getLanguageId(), film::setLanguageName);
+            }
+            // 登録したキーを1回の IN (...) クエリで解決
+            languageLoader.dispatch();
+            return films;
+        });
+
+        log.info("getFilmsWithLanguageBatched実行時間: {}ms, 取得件数: {}, クエリ実行回数: {}回",
+                response.getExecutionTimeMs(), response.getFilms().size(), languageLoader.getBatchCount() + 1);
         return response;
     }
 
@@ -149,22 +367,10 @@ public class FilmService {
             "INNER JOIN language l ON f.language_id = l.language_id\n" +
             "LIMIT 100";
         
-        long startTime = System.currentTimeMillis();
-        List<Film> films = filmMapper.findFilmsWithLanguageFast();
-        long endTime = System.currentTimeMillis();
-        long executionTime = endTime - startTime;
-        
-        // 実行計画を取得
-        List<Map<String, Object>> executionPlan = filmMapper.explainQuery(sql);
-        
+        FilmResponse response = executeWithPlan(sql, () -> filmMapper.findFilmsWithLanguageFast());
+
         log.info("getFilmsWithLanguageFast実行時間: {}ms, 取得件数: {},",
-                executionTime, films.size());
-        
-        FilmResponse response = new FilmResponse();
-        response.setFilms(films);
-        response.setExecutedSql(sql);
-        response.setExecutionTimeMs(executionTime);
-        response.setExecutionPlan(executionPlan);
+                response.getExecutionTimeMs(), response.getFilms().size());
         return response;
     }
 
@@ -184,22 +390,10 @@ public class FilmService {
             "ORDER BY f.title\n" +
             "LIMIT 50", minLength);
         
-        long startTime = System.currentTimeMillis();
-        List<Film> films = filmMapper.findFilmsComplexSlow(minLength);
-        long endTime = System.currentTimeMillis();
-        long executionTime = endTime - startTime;
-        
-        // 実行計画を取得
-        List<Map<String, Object>> executionPlan = filmMapper.explainQuery(sql);
-        
+        FilmResponse response = executeWithPlan(sql, () -> filmMapper.findFilmsComplexSlow(minLength));
+
         log.info("getFilmsComplexSlow実行時間: {}ms, 最小長: {}, 取得件数: {},",
-                executionTime, minLength, films.size());
-        
-        FilmResponse response = new FilmResponse();
-        response.setFilms(films);
-        response.setExecutedSql(sql);
-        response.setExecutionTimeMs(executionTime);
-        response.setExecutionPlan(executionPlan);
+                response.getExecutionTimeMs(), minLength, response.getFilms().size());
         return response;
     }
 
@@ -221,26 +415,183 @@ public class FilmService {
             "ORDER BY f.title\n" +
             "LIMIT 50", minLength);
         
-        long startTime = System.currentTimeMillis();
-        List<Film> films = filmMapper.findFilmsComplexFast(minLength);
-        long endTime = System.currentTimeMillis();
-        long executionTime = endTime - startTime;
-        
-        // 実行計画を取得
-        List<Map<String, Object>> executionPlan = filmMapper.explainQuery(sql);
-        
+        FilmResponse response = executeWithPlan(sql, () -> filmMapper.findFilmsComplexFast(minLength));
+
         log.info("getFilmsComplexFast実行時間: {}ms, 最小長: {}, 取得件数: {},",
-                executionTime, minLength, films.size());
-        
+                response.getExecutionTimeMs(), minLength, response.getFilms().size());
+        return response;
+    }
+
+    /**
+     * 複雑な条件での検索（集計テーブル使用）
+     * 出演者数はトリガーで更新されるfilm_actor_statsから読むため、film_actorの件数に依存しない
+     */
+    public FilmResponse getFilmsComplexPrecomputed(Integer minLength) {
+        String sql = String.format(
+            "SELECT f.film_id, f.title, f.description, f.release_year, f.language_id,\n" +
+            "       f.original_language_id, f.rental_duration, f.rental_rate, f.length,\n" +
+            "       f.replacement_cost, f.rating, f.special_features, f.last_update,\n" +
+            "       l.name as language_name,\n" +
+            "       s.actor_count\n" +
+            "FROM film f\n" +
+            "INNER JOIN film_actor_stats s ON s.film_id = f.film_id\n" +
+            "INNER JOIN language l ON f.language_id = l.language_id\n" +
+            "WHERE f.length >= %d\n" +
+            "ORDER BY f.title\n" +
+            "LIMIT 50", minLength);
+
+        FilmResponse response;
+        try {
+            response = executeWithPlan(sql, () -> filmMapper.findFilmsComplexPrecomputed(minLength));
+        } catch (DataAccessException e) {
+            if (isMySqlError(e, ER_NO_SUCH_TABLE)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "film_actor_statsテーブルがありません（database/scripts/optional/12-create-film-actor-stats.sql を実行してください）");
+            }
+            throw e;
+        }
+
+        log.info("getFilmsComplexPrecomputed実行時間: {}ms, 最小長: {}, 取得件数: {}",
+                response.getExecutionTimeMs(), minLength, response.getFilms().size());
+        return response;
+    }
+
+    public Film getFilmById(Integer filmId) {
+        return filmMapper.findFilmById(filmId);
+    }
+
+    /**
+     * IDリストで映画を一括取得（リクエストの順序で返し、見つからないIDは found=false）
+     */
+    public BatchLookupResponse<Film> getFilmsByIds(List<Integer> filmIds) {
+        BatchLookupResponse<Film> response =
+                BatchLookup.lookup(filmIds, batchLookupMaxIds, filmMapper::findFilmsWithLanguageByIds);
+        log.info("getFilmsByIds実行時間: {}ms, 指定件数: {}, 取得件数: {}, クエリ回数: {}",
+                response.getExecutionTimeMs(), response.getRequested(), response.getFound(), response.getQueryCount());
+        return response;
+    }
+
+    /**
+     * IDのリストをIN句のチャンクに分けて取得し、指定された順序に並べ替える
+     */
+    private List<Film> findFilmsByIdsInOrder(List<Integer> filmIds) {
+        Map<Integer, Film> filmsById = new HashMap<>(filmIds.size() * 2);
+        for (int from = 0; from < filmIds.size(); from += ID_LOOKUP_CHUNK_SIZE) {
+            List<Integer> chunk = filmIds.subList(from, Math.min(from + ID_LOOKUP_CHUNK_SIZE, filmIds.size()));
+            for (Film film : filmMapper.findFilmsByIds(chunk)) {
+                filmsById.put(film.getFilmId(), film);
+            }
+        }
+        List<Film> films = new ArrayList<>(filmIds.size());
+        for (Integer filmId : filmIds) {
+            Film film = filmsById.get(filmId);
+            if (film != null) {
+                films.add(film);
+            }
+        }
+        return films;
+    }
+
+    private Map<Integer, String> findLanguageNamesByIds(Collection<Integer> languageIds) {
+        Map<Integer, String> names = new HashMap<>();
+        filmMapper.findLanguagesByIds(languageIds)
+                .forEach((languageId, language) -> names.put(languageId, language.getName()));
+        return names;
+    }
+
+    private FilmResponse executeWithPlan(String sql, Supplier<List<Film>> query) {
+        return executeWithPlan(sql, sql, query);
+    }
+
+    /**
+     * データ取得クエリを実行し、実行計画（キャッシュ済みであれば再利用）を付けてレスポンスを組み立てる
+     *
+     * parallelモードではEXPLAINを共有の仮想スレッドExecutorに投入し、データ取得と同時に実行する。
+     * トランザクション外のため、データ取得とEXPLAINはそれぞれ別のプール接続を使用する。
+     * executionTimeMsはデータ取得のみ、totalTimeMsはEXPLAINを含む全体の時間。
+     * EXPLAINはsqlに対して実行し、レスポンスにはexecutedSqlを表示用として返す。
+     */
+    private FilmResponse executeWithPlan(String sql, String executedSql, Supplier<List<Film>> query) {
+        long totalStartTime = System.currentTimeMillis();
+        List<Film> films;
+        long executionTime;
+        ExplainPlanCache.Plan executionPlan;
+
+        if (explainMode == ExplainMode.PARALLEL) {
+            Future<ExplainPlanCache.Plan> planFuture = explainExecutor.submit(() -> explainPlanCache.explain(sql));
+            try {
+                long startTime = System.currentTimeMillis();
+                films = query.get();
+                executionTime = System.currentTimeMillis() - startTime;
+            } catch (RuntimeException e) {
+                // データ取得が失敗した場合はEXPLAINの結果を待たない
+                planFuture.cancel(true);
+                throw e;
+            }
+            executionPlan = awaitPlan(planFuture);
+        } else {
+            long startTime = System.currentTimeMillis();
+            films = query.get();
+            executionTime = System.currentTimeMillis() - startTime;
+            executionPlan = explainPlanCache.explain(sql);
+        }
+
         FilmResponse response = new FilmResponse();
         response.setFilms(films);
-        response.setExecutedSql(sql);
+        response.setExecutedSql(executedSql);
         response.setExecutionTimeMs(executionTime);
-        response.setExecutionPlan(executionPlan);
+        response.setExecutionPlan(executionPlan.rows());
+        response.setExecutionPlanCached(executionPlan.cached());
+        response.setExplainMode(explainMode.name().toLowerCase());
+        response.setTotalTimeMs(System.currentTimeMillis() - totalStartTime);
         return response;
     }
 
-    public Film getFilmById(Integer filmId) {
-        return filmMapper.findFilmById(filmId);
+    private static boolean isMySqlError(DataAccessException e, int errorCode) {
+        return NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException
+                && sqlException.getErrorCode() == errorCode;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    private ExplainPlanCache.Plan awaitPlan(Future<ExplainPlanCache.Plan> planFuture) {
+        try {
+            return planFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("実行計画の取得が中断されました", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("実行計画の取得に失敗しました", e.getCause());
+        }
+    }
+
+    /**
+     * EXPLAINの実行方式
+     */
+    public enum ExplainMode {
+        // データ取得の後にEXPLAINを実行（従来方式）
+        SEQUENTIAL,
+        // データ取得とEXPLAINを並行実行
+        PARALLEL
+    }
+
+    /**
+     * 正規化したFULLTEXT検索の条件（引用符の除去・前後の空白・ページと件数の丸め）
+     * 検索はこの値だけを使うため、シングルフライトのキーにもそのまま使える
+     */
+    public record FulltextQuery(String phrase, int page, int pageSize) {
+
+        public static FulltextQuery of(String keyword, Integer page, Integer limit) {
+            return new FulltextQuery(
+                    keyword.replace("\"", "").trim(),
+                    page == null ? 0 : Math.max(page, 0),
+                    KeysetPagination.clampLimit(limit));
+        }
     }
 }
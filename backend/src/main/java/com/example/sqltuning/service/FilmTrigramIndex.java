@@ -0,0 +1,283 @@
+package com.example.sqltuning.service;
+
+import com.example.sqltuning.entity.Film;
+import com.example.sqltuning.mapper.FilmMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * film.title（任意でdescription）のトライグラム転置インデックス
+ *
+ * LIKE '%keyword%' はB-treeインデックスを使えず全件スキャンになるため、
+ * アプリケーション内に3文字単位の転置インデックスを持ち、候補を絞り込んでから
+ * 部分一致を確認する。ポスティングリストは文書番号のint配列（昇順）で保持する。
+ * 起動時とrebuild()の呼び出し時にFilmMapperから構築し、更新は追従しない。
+ * 文書番号は構築時のDBの ORDER BY title の順に振るため、文書番号順がそのままタイトル順になる。
+ *
+ * LIKE（utf8mb4_0900_ai_ci）との違い:
+ * - 大文字小文字・アクセント・全角半角の同一視は fold()（NFKD分解、結合文字の除去、小文字化）で近似する。
+ *   照合順序の展開（ß と ss、æ と ae など）は再現しないため、こうした文字を含む場合は結果が異なりうる
+ * - 検索語の % と _ はワイルドカードではなく文字として扱う
+ * - 並び順は構築時点のDBの照合順序によるタイトル順（構築後にタイトルが更新されても追従しない）
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FilmTrigramIndex {
+
+    // トライグラムを作れる検索語の最小文字数（fold()後の長さ）
+    public static final int MIN_TERM_LENGTH = 3;
+
+    private final FilmMapper filmMapper;
+
+    @Value("${film.trigram.include-description:false}")
+    private boolean includeDescription;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("トライグラムインデックスの構築に失敗しました: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+        Builder builder = new Builder(includeDescription);
+        filmMapper.scanFilmTexts(includeDescription, context -> builder.add(context.getResultObject()));
+        snapshot = builder.build();
+        long endTime = System.currentTimeMillis();
+        log.info("トライグラムインデックス構築時間: {}ms, 件数: {}, トライグラム数: {}",
+                (endTime - startTime), snapshot.filmIds.length, snapshot.titlePostings.size());
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public boolean isDescriptionIndexed() {
+        Snapshot current = snapshot;
+        return current != null && current.descriptions != null;
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.filmIds.length;
+    }
+
+    /**
+     * 部分一致する映画のIDをタイトル順に最大limit件返す（LIKE '%term%' との違いはクラスのコメントを参照）
+     */
+    public List<Integer> search(String term, boolean withDescription, int limit) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("トライグラムインデックスが構築されていません");
+        }
+        String needle = fold(term);
+        boolean searchDescription = withDescription && current.descriptions != null;
+
+        List<Integer> filmIds = new ArrayList<>();
+        if (needle.length() < MIN_TERM_LENGTH) {
+            // トライグラムが作れない短い検索語は全件を順に確認する（limit件で打ち切る）
+            for (int doc = 0; doc < current.filmIds.length && filmIds.size() < limit; doc++) {
+                if (matches(current, doc, needle, searchDescription)) {
+                    filmIds.add(current.filmIds[doc]);
+                }
+            }
+            return filmIds;
+        }
+        for (int doc : unionCandidates(current, needle, searchDescription)) {
+            if (filmIds.size() >= limit) {
+                break;
+            }
+            if (matches(current, doc, needle, searchDescription)) {
+                filmIds.add(current.filmIds[doc]);
+            }
+        }
+        return filmIds;
+    }
+
+    private static boolean matches(Snapshot current, int doc, String needle, boolean searchDescription) {
+        return current.titles[doc].contains(needle)
+                || (searchDescription && current.descriptions[doc] != null
+                    && current.descriptions[doc].contains(needle));
+    }
+
+    private int[] unionCandidates(Snapshot current, String needle, boolean searchDescription) {
+        int[] titleCandidates = intersect(current.titlePostings, needle);
+        if (!searchDescription) {
+            return titleCandidates;
+        }
+        return union(titleCandidates, intersect(current.descriptionPostings, needle));
+    }
+
+    /**
+     * 検索語の全トライグラムのポスティングリストの積集合（短いリストから順に絞り込む）
+     */
+    private static int[] intersect(Map<Long, int[]> postings, String needle) {
+        List<int[]> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= needle.length(); i++) {
+            int[] posting = postings.get(trigram(needle, i));
+            if (posting == null) {
+                return new int[0];
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                out[n++] = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * 照合順序（アクセント・全角半角・大文字小文字を区別しない）に近づけるための正規化
+     */
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32)
+                | ((long) text.charAt(offset + 1) << 16)
+                | text.charAt(offset + 2);
+    }
+
+    private record Snapshot(int[] filmIds,
+                            String[] titles,
+                            String[] descriptions,
+                            Map<Long, int[]> titlePostings,
+                            Map<Long, int[]> descriptionPostings) {
+    }
+
+    /**
+     * 構築中のみ使用する可変のバッファ
+     */
+    private static class Builder {
+        private final boolean withDescription;
+        private final List<Integer> filmIds = new ArrayList<>();
+        private final List<String> titles = new ArrayList<>();
+        private final List<String> descriptions = new ArrayList<>();
+        private final Map<Long, IntList> titlePostings = new HashMap<>();
+        private final Map<Long, IntList> descriptionPostings = new HashMap<>();
+
+        Builder(boolean withDescription) {
+            this.withDescription = withDescription;
+        }
+
+        void add(Film film) {
+            int doc = filmIds.size();
+            String title = film.getTitle() == null ? "" : fold(film.getTitle());
+            filmIds.add(film.getFilmId());
+            titles.add(title);
+            index(titlePostings, title, doc);
+            if (withDescription) {
+                String description = film.getDescription() == null
+                        ? null : fold(film.getDescription());
+                descriptions.add(description);
+                if (description != null) {
+                    index(descriptionPostings, description, doc);
+                }
+            }
+        }
+
+        private static void index(Map<Long, IntList> postings, String text, int doc) {
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                postings.computeIfAbsent(trigram(text, i), key -> new IntList()).addIfLast(doc);
+            }
+        }
+
+        Snapshot build() {
+            return new Snapshot(
+                    filmIds.stream().mapToInt(Integer::intValue).toArray(),
+                    titles.toArray(String[]::new),
+                    withDescription ? descriptions.toArray(String[]::new) : null,
+                    freeze(titlePostings),
+                    freeze(descriptionPostings));
+        }
+
+        private static Map<Long, int[]> freeze(Map<Long, IntList> postings) {
+            Map<Long, int[]> frozen = new HashMap<>(postings.size() * 2);
+            postings.forEach((key, list) -> frozen.put(key, list.toArray()));
+            return frozen;
+        }
+    }
+
+    /**
+     * 昇順に追加される文書番号の可変長int配列（同じ番号の連続追加は無視）
+     */
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void addIfLast(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
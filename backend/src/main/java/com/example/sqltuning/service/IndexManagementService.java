@@ -0,0 +1,288 @@
+package com.example.sqltuning.service;
+
+import com.example.sqltuning.dto.CreateIndexRequest;
+import com.example.sqltuning.dto.IndexInfoResponse;
+import com.example.sqltuning.dto.IndexJobResponse;
+import com.example.sqltuning.mapper.IndexMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * インデックスの作成・削除・可視性の切り替え
+ *
+ * 作成・削除は ALGORITHM=INPLACE, LOCK=NONE のオンラインDDLとして、専用の1スレッドで
+ * 順番に実行する非同期ジョブにする。リクエストスレッドはすぐに戻り、DDLが同時に使う接続は1本だけ。
+ * FULLTEXTインデックスの作成は LOCK=SHARED（実行中の更新は待たされる）になり、
+ * 最初の1つはテーブルの再構築を伴う。
+ * 進捗はDDLを実行している接続のスレッドIDで performance_schema のステージイベントを参照して求める。
+ * 操作できるのは許可リストのテーブルのみ。
+ */
+@Service
+@Slf4j
+public class IndexManagementService {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z0-9_]{1,64}");
+    private static final int MAX_RETAINED_JOBS = 100;
+
+    private final IndexMapper indexMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExplainPlanCache explainPlanCache;
+    private final Set<String> allowedTables;
+    private final ExecutorService ddlExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "index-ddl");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong jobSequence = new AtomicLong();
+    private final ConcurrentMap<Long, IndexJob> jobs = new ConcurrentHashMap<>();
+
+    public IndexManagementService(IndexMapper indexMapper,
+                                  TransactionTemplate transactionTemplate,
+                                  ExplainPlanCache explainPlanCache,
+                                  @Value("${index-management.allowed-tables}") Set<String> allowedTables) {
+        this.indexMapper = indexMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.explainPlanCache = explainPlanCache;
+        this.allowedTables = allowedTables.stream()
+                .map(table -> table.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public List<IndexInfoResponse> getIndexes(String table) {
+        String validTable = validateTable(table);
+        Map<String, IndexInfoResponse> indexes = new LinkedHashMap<>();
+        for (Map<String, Object> row : indexMapper.findIndexColumns(validTable)) {
+            String indexName = String.valueOf(row.get("indexName"));
+            indexes.computeIfAbsent(indexName, name -> new IndexInfoResponse(
+                    name,
+                    new ArrayList<>(),
+                    "0".equals(String.valueOf(row.get("nonUnique"))),
+                    "YES".equals(String.valueOf(row.get("visible")))))
+                    .getColumns().add(String.valueOf(row.get("columnName")));
+        }
+        return new ArrayList<>(indexes.values());
+    }
+
+    public IndexJobResponse createIndex(CreateIndexRequest request) {
+        String table = validateTable(request.getTable());
+        String indexName = validateIdentifier(request.getIndexName(), "インデックス名");
+        if (request.getColumns() == null || request.getColumns().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "列を指定してください");
+        }
+        List<String> tableColumns = indexMapper.findColumnNames(table).stream()
+                .map(column -> column.toLowerCase(Locale.ROOT))
+                .toList();
+        List<String> columns = new ArrayList<>();
+        for (String column : request.getColumns()) {
+            String validColumn = validateIdentifier(column, "列名").toLowerCase(Locale.ROOT);
+            if (!tableColumns.contains(validColumn)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "テーブル " + table + " に列 " + column + " はありません");
+            }
+            columns.add(validColumn);
+        }
+        boolean invisible = request.isInvisible();
+        boolean fulltext = request.isFulltext();
+        return submit("CREATE", table, indexName, columns,
+                () -> indexMapper.createIndex(table, indexName, columns, invisible, fulltext));
+    }
+
+    public IndexJobResponse dropIndex(String table, String indexName) {
+        String validTable = validateTable(table);
+        String validIndexName = validateDroppableIndex(indexName);
+        return submit("DROP", validTable, validIndexName, List.of(),
+                () -> indexMapper.dropIndex(validTable, validIndexName));
+    }
+
+    /**
+     * インデックスの可視/不可視を切り替える（メタデータのみの変更のため同期実行）
+     *
+     * 不可視にしたインデックスは更新され続けるがオプティマイザーからは使われないため、
+     * 削除前の影響確認や、作成したインデックスの即時ロールバックに使える。
+     */
+    public void setVisibility(String table, String indexName, boolean visible) {
+        String validTable = validateTable(table);
+        String validIndexName = validateDroppableIndex(indexName);
+        try {
+            indexMapper.setIndexVisibility(validTable, validIndexName, visible);
+            log.info("インデックス {}.{} を{}にしました", validTable, validIndexName, visible ? "可視" : "不可視");
+        } catch (Exception e) {
+            log.error("Failed to change index visibility: {}", e.getMessage());
+            throw new RuntimeException("インデックスの可視性の変更に失敗しました: " + e.getMessage());
+        } finally {
+            explainPlanCache.invalidateAll();
+        }
+    }
+
+    public List<IndexJobResponse> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparingLong((IndexJob job) -> job.id).reversed())
+                .map(this::toResponse)
+                .toList();
+    }
+
+    public IndexJobResponse getJob(long jobId) {
+        IndexJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "ジョブが見つかりません: " + jobId);
+        }
+        return toResponse(job);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ddlExecutor.shutdownNow();
+    }
+
+    private IndexJobResponse submit(String operation, String table, String indexName,
+                                    List<String> columns, Runnable ddl) {
+        IndexJob job = new IndexJob(jobSequence.incrementAndGet(), operation, table, indexName, columns);
+        jobs.put(job.id, job);
+        pruneFinishedJobs();
+        ddlExecutor.submit(() -> run(job, ddl));
+        log.info("インデックスジョブを登録しました: #{} {} {}.{}", job.id, operation, table, indexName);
+        return toResponse(job);
+    }
+
+    private void run(IndexJob job, Runnable ddl) {
+        job.startedAt = LocalDateTime.now();
+        job.status = "RUNNING";
+        try {
+            // スレッドIDの取得とDDLを同じ接続で実行するため、トランザクション内で呼び出す
+            transactionTemplate.executeWithoutResult(status -> {
+                job.threadId = indexMapper.findCurrentThreadId();
+                ddl.run();
+            });
+            job.status = "COMPLETED";
+            log.info("インデックスジョブが完了しました: #{} {} {}.{}", job.id, job.operation, job.table, job.indexName);
+        } catch (Exception e) {
+            job.error = e.getMessage();
+            job.status = "FAILED";
+            log.error("インデックスジョブが失敗しました: #{}: {}", job.id, e.getMessage());
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            job.threadId = null;
+            // インデックスの有無で実行計画が変わるためキャッシュを破棄
+            explainPlanCache.invalidateAll();
+        }
+    }
+
+    private IndexJobResponse toResponse(IndexJob job) {
+        IndexJobResponse response = new IndexJobResponse();
+        response.setJobId(job.id);
+        response.setOperation(job.operation);
+        response.setTable(job.table);
+        response.setIndexName(job.indexName);
+        response.setColumns(job.columns);
+        response.setStatus(job.status);
+        response.setSubmittedAt(job.submittedAt);
+        response.setStartedAt(job.startedAt);
+        response.setFinishedAt(job.finishedAt);
+        response.setError(job.error);
+        if (job.startedAt != null) {
+            LocalDateTime end = job.finishedAt != null ? job.finishedAt : LocalDateTime.now();
+            response.setElapsedMs(Duration.between(job.startedAt, end).toMillis());
+        }
+
+        Long threadId = job.threadId;
+        if (threadId != null) {
+            Map<String, Object> stage = indexMapper.findCurrentStage(threadId);
+            if (stage != null) {
+                response.setStage(String.valueOf(stage.get("eventName")));
+                Long completed = toLong(stage.get("workCompleted"));
+                Long estimated = toLong(stage.get("workEstimated"));
+                response.setWorkCompleted(completed);
+                response.setWorkEstimated(estimated);
+                if (completed != null && estimated != null && estimated > 0) {
+                    response.setProgressPercent(Math.round(completed * 1000.0 / estimated) / 10.0);
+                }
+            }
+        }
+        return response;
+    }
+
+    private void pruneFinishedJobs() {
+        if (jobs.size() <= MAX_RETAINED_JOBS) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.finishedAt != null)
+                .sorted(Comparator.comparingLong(job -> job.id))
+                .limit(jobs.size() - MAX_RETAINED_JOBS)
+                .forEach(job -> jobs.remove(job.id));
+    }
+
+    private String validateTable(String table) {
+        String validTable = validateIdentifier(table, "テーブル名").toLowerCase(Locale.ROOT);
+        if (!allowedTables.contains(validTable)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "操作が許可されていないテーブルです: " + table);
+        }
+        return validTable;
+    }
+
+    private String validateDroppableIndex(String indexName) {
+        String validIndexName = validateIdentifier(indexName, "インデックス名");
+        if ("PRIMARY".equalsIgnoreCase(validIndexName)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "主キーは操作できません");
+        }
+        return validIndexName;
+    }
+
+    private static String validateIdentifier(String value, String label) {
+        if (value == null || !IDENTIFIER.matcher(value).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, label + "が不正です: " + value);
+        }
+        return value;
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * 非同期ジョブの状態（DDLスレッドが更新し、リクエストスレッドが読む）
+     */
+    private static class IndexJob {
+        private final long id;
+        private final String operation;
+        private final String table;
+        private final String indexName;
+        private final List<String> columns;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile String status = "QUEUED";
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+        private volatile Long threadId;
+
+        IndexJob(long id, String operation, String table, String indexName, List<String> columns) {
+            this.id = id;
+            this.operation = operation;
+            this.table = table;
+            this.indexName = indexName;
+            this.columns = List.copyOf(columns);
+        }
+    }
+}
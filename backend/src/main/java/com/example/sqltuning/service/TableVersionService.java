@@ -0,0 +1,78 @@
+package com.example.sqltuning.service;
+
+import com.example.sqltuning.config.BinaryEncodingConfig;
+import com.example.sqltuning.support.ExpiringCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.WebRequest;
+
+import java.sql.Timestamp;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 一覧APIのETag（条件付きGET）用のテーブルバージョン
+ *
+ * テーブルごとに COUNT(*) と MAX(last_update) を取得して数秒間キャッシュし、
+ * それらを連結した文字列をETagとして使う。If-None-Matchが一致すれば、
+ * 一覧のSQLもJSONのシリアライズも行わずに304を返せる。
+ * last_updateは秒精度のため、同じ秒の中で件数を変えずに更新された行はTTL内では検出できない。
+ *
+ * MAX(last_update) は idx_*_last_update（02-create-indexes.sql）の末尾を読むだけで求まるが、
+ * COUNT(*) はInnoDBでは最も小さいセカンダリインデックスの全件スキャンになる。
+ * 行数の多いテーブルでは etag.version-ttl を長めにしてスキャンの頻度を抑えること。
+ */
+@Service
+@Slf4j
+public class TableVersionService {
+
+    private static final Set<String> VERSIONED_TABLES = Set.of("film", "actor", "customer");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpiringCache<String, String> versions;
+
+    public TableVersionService(JdbcTemplate jdbcTemplate,
+                               @Value("${etag.version-ttl:2000}") long ttlMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.versions = new ExpiringCache<>(ttlMillis, VERSIONED_TABLES.size());
+    }
+
+    /**
+     * リソース名と参照するテーブルのバージョンからETagを作る（例: films-1000-1139975146）
+     */
+    public String etag(String resource, String... tables) {
+        return Stream.concat(Stream.of(resource), Stream.of(tables).map(this::version))
+                .collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    /**
+     * Acceptで選ばれるレスポンスの形式名を含めたETag（例: films-cbor-1000-1139975146）
+     * 同じURLでもJSONとCBOR/Smileでは本文が異なるため、形式ごとに別のETagにする
+     */
+    public String etag(String resource, WebRequest request, String... tables) {
+        return etag(resource + "-" + BinaryEncodingConfig.formatOf(request.getHeader(HttpHeaders.ACCEPT)), tables);
+    }
+
+    public String version(String table) {
+        if (!VERSIONED_TABLES.contains(table)) {
+            throw new IllegalArgumentException("バージョン管理対象外のテーブルです: " + table);
+        }
+        String cached = versions.get(table);
+        if (cached != null) {
+            return cached;
+        }
+        String version = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*), MAX(last_update) FROM " + table,
+                (rs, rowNum) -> {
+                    Timestamp lastUpdate = rs.getTimestamp(2);
+                    return rs.getLong(1) + "-" + (lastUpdate == null ? 0 : lastUpdate.getTime() / 1000);
+                });
+        versions.put(table, version);
+        log.debug("テーブルバージョンを更新: {} = {}", table, version);
+        return version;
+    }
+}
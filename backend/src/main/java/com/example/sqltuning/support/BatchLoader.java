@@ -0,0 +1,104 @@
+package com.example.sqltuning.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * N+1問題を解消するためのバッチローダー（DataLoaderパターン）
+ *
+ * load()でキーと結果の受け取り先を登録しておき、dispatch()でまとめて
+ * 1回の IN (...) クエリで解決する。重複したキーは1回だけ問い合わせ、
+ * 解決済みのキーはメモから返す。
+ *
+ * 1回のサービス呼び出しの中で生成して使い捨てる想定のため、スレッドセーフではない。
+ * リクエストスコープのBeanにはしていない。このアプリのN+1は1回のサービス呼び出しの中で完結し
+ * （一覧を取得してから関連を解決する）、リクエスト内の別の呼び出しと共有できるキーがないため。
+ * また、サービスはWebリクエスト外（JMHベンチマーク、負荷テストのSERVICEモード）からも呼ばれ、
+ * リクエストをまたいで結果を共有するSingleFlightとも組み合わさるため、
+ * 呼び出し単位にしておくとメモが古くなる範囲も1回の呼び出しに限られる。
+ *
+ * <pre>
+ * BatchLoader&lt;Integer, String&gt; loader = new BatchLoader&lt;&gt;(ids -&gt; mapper.findNamesByIds(ids));
+ * for (Film film : films) {
+ *     loader.load(film.getLanguageId(), film::setLanguageName);
+ * }
+ * loader.dispatch();
+ * </pre>
+ */
+public class BatchLoader<K, V> {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    private final Function<Collection<K>, Map<K, V>> batchFunction;
+    private final int maxBatchSize;
+    // 解決済みの結果（見つからなかったキーはnullで記録）
+    private final Map<K, V> memo = new HashMap<>();
+    private final Map<K, List<Consumer<? super V>>> pending = new LinkedHashMap<>();
+    private int batchCount;
+
+    public BatchLoader(Function<Collection<K>, Map<K, V>> batchFunction) {
+        this(batchFunction, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * @param batchFunction キーの集合を受け取り、キーごとの結果を返す関数（見つからないキーは含めなくてよい）
+     * @param maxBatchSize  1回の問い合わせに含めるキーの上限
+     */
+    public BatchLoader(Function<Collection<K>, Map<K, V>> batchFunction, int maxBatchSize) {
+        this.batchFunction = batchFunction;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * キーを登録する。解決済みであれば即座に、そうでなければdispatch()時にcallbackが呼ばれる
+     */
+    public void load(K key, Consumer<? super V> callback) {
+        if (key == null) {
+            callback.accept(null);
+            return;
+        }
+        if (memo.containsKey(key)) {
+            callback.accept(memo.get(key));
+            return;
+        }
+        pending.computeIfAbsent(key, k -> new ArrayList<>()).add(callback);
+    }
+
+    /**
+     * 未解決のキーをまとめて問い合わせ、登録済みのcallbackに結果を渡す
+     */
+    public void dispatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<K> keys = new ArrayList<>(pending.keySet());
+        for (int from = 0; from < keys.size(); from += maxBatchSize) {
+            List<K> chunk = keys.subList(from, Math.min(from + maxBatchSize, keys.size()));
+            Map<K, V> loaded = batchFunction.apply(chunk);
+            batchCount++;
+            for (K key : chunk) {
+                memo.put(key, loaded.get(key));
+            }
+        }
+
+        Map<K, List<Consumer<? super V>>> resolved = new LinkedHashMap<>(pending);
+        pending.clear();
+        resolved.forEach((key, callbacks) -> {
+            V value = memo.get(key);
+            callbacks.forEach(callback -> callback.accept(value));
+        });
+    }
+
+    /**
+     * 実際に発行したバッチ問い合わせの回数
+     */
+    public int getBatchCount() {
+        return batchCount;
+    }
+}
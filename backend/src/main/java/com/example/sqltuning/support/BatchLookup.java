@@ -0,0 +1,68 @@
+package com.example.sqltuning.support;
+
+import com.example.sqltuning.dto.BatchLookupResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * IDリストによる一括取得（/films/batch, /actors/batch）
+ *
+ * クライアントが GET /{id} をIDの数だけ呼ぶ代わりに、BatchLoaderで重複を除いた
+ * IDを BatchLoader.DEFAULT_MAX_BATCH_SIZE 件ずつの IN (...) クエリにまとめて解決する。
+ * 結果はリクエストのIDと同じ順序で返し、見つからなかったIDは found=false で示す。
+ */
+public final class BatchLookup {
+
+    private BatchLookup() {
+    }
+
+    /**
+     * @param ids           取得するID（重複可）
+     * @param maxIds        1リクエストで指定できるIDの上限（超えた場合は400）
+     * @param batchFunction IDの集合を受け取り、IDごとの行を返す関数（見つからないIDは含めなくてよい）
+     */
+    public static <T> BatchLookupResponse<T> lookup(List<Integer> ids, int maxIds,
+                                                    Function<Collection<Integer>, Map<Integer, T>> batchFunction) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "idsを1件以上指定してください");
+        }
+        if (ids.size() > maxIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "idsは" + maxIds + "件以下で指定してください（指定: " + ids.size() + "件）");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "idsにnullは指定できません");
+        }
+
+        long startTime = System.currentTimeMillis();
+        BatchLoader<Integer, T> loader = new BatchLoader<>(batchFunction);
+        List<BatchLookupResponse.Item<T>> results = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            BatchLookupResponse.Item<T> result = new BatchLookupResponse.Item<>(id, false, null);
+            results.add(result);
+            loader.load(id, item -> {
+                result.setFound(item != null);
+                result.setItem(item);
+            });
+        }
+        loader.dispatch();
+        long executionTime = System.currentTimeMillis() - startTime;
+
+        int found = (int) results.stream().filter(BatchLookupResponse.Item::isFound).count();
+        BatchLookupResponse<T> response = new BatchLookupResponse<>();
+        response.setResults(results);
+        response.setRequested(ids.size());
+        response.setFound(found);
+        response.setMissing(ids.size() - found);
+        response.setQueryCount(loader.getBatchCount());
+        response.setExecutionTimeMs(executionTime);
+        return response;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.sqltuning.support;
+
+import com.example.sqltuning.dto.PageResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * キーセット（シーク）方式のページネーション
+ *
+ * OFFSETを使わず WHERE pk &gt; ? ORDER BY pk LIMIT ? で次ページを取得するため、
+ * 何ページ目でも1ページ目と同じコストで取得できる。
+ * 継続トークンは「リソース名:最後の主キー」をBase64URLでエンコードしたもの。
+ */
+public final class KeysetPagination {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * 取得件数を 1〜MAX_LIMIT の範囲に丸める
+     */
+    public static int clampLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * 開始位置（この主キーより後ろを取得）を決定する
+     * 継続トークンが指定されていればafterより優先する
+     */
+    public static Integer resolveAfter(String resource, Integer after, String token) {
+        if (token == null || token.isBlank()) {
+            return after;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(':');
+            if (separator < 0 || !decoded.substring(0, separator).equals(resource)) {
+                throw new IllegalArgumentException("resource mismatch");
+            }
+            return Integer.valueOf(decoded.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "継続トークンが不正です: " + token);
+        }
+    }
+
+    public static String encodeToken(String resource, Integer lastId) {
+        String raw = resource + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * limit + 1 件取得した結果からページを組み立てる
+     * 余分な1件があれば次ページが存在する
+     */
+    public static <T> PageResponse<T> toPage(String resource, List<T> rows, int limit, Function<T, Integer> idOf) {
+        boolean hasMore = rows.size() > limit;
+        List<T> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextToken = hasMore ? encodeToken(resource, idOf.apply(items.get(items.size() - 1))) : null;
+        return new PageResponse<>(items, limit, hasMore, nextToken);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.sqltuning.support;
+
+import com.example.sqltuning.dto.SingleFlightMetricsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 同一の呼び出しを1回の実行にまとめる（シングルフライト）
+ *
+ * 人気の検索語に同じリクエストが同時に殺到すると、それぞれがコネクションプールから
+ * コネクションを取り出して同じクエリを実行してしまう。操作名と引数が同じ呼び出しが
+ * 実行中であれば新たに実行せず、その完了を待って同じ結果（例外も含む）を返す。
+ * 完了した時点でキーは破棄するため、結果をキャッシュするわけではない。
+ *
+ * 結果のオブジェクトは待っていた全員で共有するため、呼び出し側で変更しないこと。
+ * 引数は文字列の大文字・小文字や前後の空白も区別する（LIKEの結果やexecutedSqlが変わるため）。
+ */
+@Component
+public class SingleFlight {
+
+    private final boolean enabled;
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public SingleFlight(@Value("${single-flight.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param operation 操作名（メトリクスの集計単位）
+     * @param supplier  実際の処理
+     * @param args      呼び出しを区別する引数（nullを含んでよい）
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Supplier<T> supplier, Object... args) {
+        if (!enabled) {
+            return supplier.get();
+        }
+        Counters metrics = counters.computeIfAbsent(operation, name -> new Counters());
+        metrics.calls.increment();
+
+        Key key = new Key(operation, Arrays.asList(args));
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            // 実行中の呼び出しに相乗りする
+            metrics.coalesced.increment();
+            return (T) await(existing);
+        }
+
+        metrics.executions.increment();
+        try {
+            T result = supplier.get();
+            created.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            metrics.failures.increment();
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * 操作ごとの相乗り率（呼び出し回数の多い順）
+     */
+    public List<SingleFlightMetricsResponse> snapshot() {
+        return counters.entrySet().stream()
+                .map(entry -> {
+                    Counters metrics = entry.getValue();
+                    SingleFlightMetricsResponse response = new SingleFlightMetricsResponse();
+                    response.setOperation(entry.getKey());
+                    long calls = metrics.calls.sum();
+                    long coalesced = metrics.coalesced.sum();
+                    response.setCalls(calls);
+                    response.setExecutions(metrics.executions.sum());
+                    response.setCoalesced(coalesced);
+                    response.setCoalescingRatio(calls == 0 ? 0 : (double) coalesced / calls);
+                    response.setFailures(metrics.failures.sum());
+                    response.setInFlight((int) inFlight.keySet().stream()
+                            .filter(key -> key.operation().equals(entry.getKey()))
+                            .count());
+                    return response;
+                })
+                .sorted(Comparator.comparingLong(SingleFlightMetricsResponse::getCalls).reversed())
+                .toList();
+    }
+
+    public void reset() {
+        counters.clear();
+    }
+
+    /**
+     * 先行する呼び出しの完了を待ち、例外は元の型のまま投げ直す
+     */
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(String operation, List<?> args) {
+    }
+
+    private static final class Counters {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+    }
+}
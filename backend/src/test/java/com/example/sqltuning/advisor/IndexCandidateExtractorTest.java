@@ -0,0 +1,103 @@
+package com.example.sqltuning.advisor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexCandidateExtractorTest {
+
+    // information_schema の代わりに使う最小限のスキーマ
+    private static final Map<String, Set<String>> SCHEMA = Map.of(
+            "film", Set.of("film_id", "title", "rating", "length", "release_year", "last_update"),
+            "film_actor", Set.of("film_id", "actor_id", "last_update"),
+            "actor", Set.of("actor_id", "first_name", "last_name", "last_update"));
+
+    private static final BiPredicate<String, String> HAS_COLUMN =
+            (table, column) -> SCHEMA.getOrDefault(table, Set.of()).contains(column);
+
+    private static List<List<String>> candidates(String sql, String table) {
+        return new IndexCandidateExtractor(sql, HAS_COLUMN).candidates(table);
+    }
+
+    @Test
+    void equalityColumnsComeBeforeRangeAndSortColumns() {
+        String sql = "SELECT * FROM film f WHERE f.rating = ? AND f.length > ? ORDER BY f.title LIMIT 10";
+
+        assertEquals(List.of(List.of("rating", "length"), List.of("rating", "title")), candidates(sql, "film"));
+    }
+
+    @Test
+    void joinConditionsCountAsEqualityOnBothSides() {
+        String sql = "SELECT a.* FROM actor a JOIN film_actor fa ON fa.actor_id = a.actor_id "
+                + "WHERE a.last_name = ?";
+        IndexCandidateExtractor extractor = new IndexCandidateExtractor(sql, HAS_COLUMN);
+
+        assertEquals("film_actor", extractor.resolveTable("fa"));
+        assertEquals("actor", extractor.resolveTable("A"));
+        assertNull(extractor.resolveTable("<derived2>"));
+        assertEquals(List.of(List.of("actor_id", "last_name")), extractor.candidates("actor"));
+        assertEquals(List.of(List.of("actor_id")), extractor.candidates("film_actor"));
+    }
+
+    @Test
+    void inListIsEqualityAndBetweenIsRange() {
+        String sql = "SELECT * FROM film WHERE release_year BETWEEN ? AND ? AND rating IN (?, ?)";
+
+        assertEquals(List.of(List.of("rating", "release_year")), candidates(sql, "film"));
+    }
+
+    @Test
+    void leadingWildcardLikeIsIgnored() {
+        assertTrue(candidates("SELECT * FROM film WHERE title LIKE '%dino%'", "film").isEmpty());
+        assertTrue(candidates("SELECT * FROM film WHERE title LIKE CONCAT('%', ?, '%')", "film").isEmpty());
+        assertEquals(List.of(List.of("title")), candidates("SELECT * FROM film WHERE title LIKE 'dino%'", "film"));
+    }
+
+    @Test
+    void notEqualIsIgnored() {
+        assertTrue(candidates("SELECT * FROM film WHERE rating <> ? AND length != ?", "film").isEmpty());
+    }
+
+    @Test
+    void literalsAreNotParsedAsPredicates() {
+        String sql = "SELECT * FROM film WHERE title = 'length = 3' AND rating = ?";
+
+        assertEquals(List.of(List.of("title", "rating")), candidates(sql, "film"));
+    }
+
+    @Test
+    void ambiguousUnqualifiedColumnsAreSkipped() {
+        String sql = "SELECT * FROM film f JOIN film_actor fa ON fa.film_id = f.film_id WHERE last_update > ?";
+
+        assertEquals(List.of(List.of("film_id")), candidates(sql, "film"));
+        assertEquals(List.of(List.of("film_id")), candidates(sql, "film_actor"));
+    }
+
+    @Test
+    void mixedSortDirectionsGiveNoSortCandidate() {
+        String sql = "SELECT * FROM film WHERE rating = ? ORDER BY title ASC, release_year DESC";
+
+        assertEquals(List.of(List.of("rating")), candidates(sql, "film"));
+    }
+
+    @Test
+    void sortAcrossTablesGivesNoSortCandidate() {
+        String sql = "SELECT * FROM film f JOIN film_actor fa ON fa.film_id = f.film_id ORDER BY f.title, fa.actor_id";
+
+        assertEquals(List.of(List.of("film_id")), candidates(sql, "film"));
+    }
+
+    @Test
+    void groupByProducesCandidate() {
+        String sql = "SELECT rating, COUNT(*) FROM film WHERE release_year = ? GROUP BY rating";
+
+        assertEquals(List.of(List.of("release_year"), List.of("release_year", "rating")), candidates(sql, "film"));
+    }
+}
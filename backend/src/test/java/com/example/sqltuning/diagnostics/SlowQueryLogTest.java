@@ -0,0 +1,83 @@
+package com.example.sqltuning.diagnostics;
+
+import com.example.sqltuning.dto.SlowQueryResponse;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowQueryLogTest {
+
+    private final SlowQueryLog log = new SlowQueryLog(3);
+
+    private void record(String statementId) {
+        log.record(statementId, SqlCommandType.SELECT, "SELECT 1", List.of(), 1_500_000L);
+    }
+
+    @Test
+    void oldestEntriesAreOverwrittenWhenFull() {
+        for (int i = 0; i < 5; i++) {
+            record("stmt" + i);
+        }
+
+        assertEquals(5, log.nextSequence());
+        // seq 0, 1 はそれぞれ seq 3, 4 で上書きされている
+        assertNull(log.get(0));
+        assertNull(log.get(1));
+        assertEquals("stmt2", log.get(2).getStatementId());
+        assertEquals("stmt4", log.get(4).getStatementId());
+        assertNull(log.get(5));
+    }
+
+    @Test
+    void snapshotIsNewestFirst() {
+        for (int i = 0; i < 4; i++) {
+            record("stmt" + i);
+        }
+
+        List<SlowQueryResponse> snapshot = log.snapshot();
+
+        assertEquals(List.of("stmt3", "stmt2", "stmt1"),
+                snapshot.stream().map(SlowQueryResponse::getStatementId).toList());
+        assertEquals(1.5, snapshot.get(0).getElapsedMs());
+        assertEquals("PENDING", snapshot.get(0).getExplainStatus());
+    }
+
+    @Test
+    void enumParametersAreStoredByName() {
+        log.record("stmt", SqlCommandType.SELECT, "SELECT ?, ?", List.of(SqlCommandType.UPDATE, 42), 0L);
+
+        assertEquals(List.of("UPDATE", 42), log.get(0).getParameters());
+    }
+
+    @Test
+    void explainResultIsReflectedInSnapshot() {
+        record("stmt");
+        SlowQueryLog.SlowQuery entry = log.get(0);
+        assertNotNull(entry);
+
+        entry.setExplain(SlowQueryLog.ExplainResult.skipped("not a SELECT"));
+
+        SlowQueryResponse response = log.snapshot().get(0);
+        assertEquals("SKIPPED", response.getExplainStatus());
+        assertEquals("not a SELECT", response.getExplainError());
+    }
+
+    @Test
+    void clearEmptiesButKeepsSequence() {
+        record("stmt0");
+        record("stmt1");
+
+        log.clear();
+
+        assertTrue(log.snapshot().isEmpty());
+        assertNull(log.get(1));
+        record("stmt2");
+        assertEquals("stmt2", log.get(2).getStatementId());
+    }
+}
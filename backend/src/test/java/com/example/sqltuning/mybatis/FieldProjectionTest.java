@@ -0,0 +1,83 @@
+package com.example.sqltuning.mybatis;
+
+import com.example.sqltuning.dto.PageResponse;
+import com.example.sqltuning.entity.Actor;
+import com.example.sqltuning.mapper.ActorMapper;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FieldProjectionTest {
+
+    private static final String ACTOR_RESULT_MAP = ActorMapper.class.getName() + ".ActorResultMap";
+
+    private FieldProjection fieldProjection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // 実際のマッパーXMLのResultMapをホワイトリストとして使う
+        Configuration configuration = new Configuration();
+        String resource = "mapper/ActorMapper.xml";
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+            new XMLMapperBuilder(in, configuration, resource, configuration.getSqlFragments()).parse();
+        }
+        SqlSessionFactory sqlSessionFactory = mock(SqlSessionFactory.class);
+        when(sqlSessionFactory.getConfiguration()).thenReturn(configuration);
+        fieldProjection = new FieldProjection(sqlSessionFactory);
+    }
+
+    @Test
+    void idIsAlwaysIncludedFirst() {
+        FieldProjection.Projection projection = fieldProjection.resolve(ACTOR_RESULT_MAP, "lastName, firstName");
+
+        assertEquals(List.of("actorId", "lastName", "firstName"), projection.properties());
+        assertEquals(List.of("actor_id", "last_name", "first_name"), projection.columns());
+    }
+
+    @Test
+    void duplicateAndEmptyFieldsAreIgnored() {
+        FieldProjection.Projection projection = fieldProjection.resolve(ACTOR_RESULT_MAP, "actorId,,lastName,lastName");
+
+        assertEquals(List.of("actorId", "lastName"), projection.properties());
+    }
+
+    @Test
+    void unknownFieldsAreRejected() {
+        for (String fields : List.of("password", "last_name", "lastName, actor_id FROM actor; --")) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> fieldProjection.resolve(ACTOR_RESULT_MAP, fields), fields);
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+            assertTrue(e.getReason().contains("firstName"), e.getReason());
+        }
+    }
+
+    @Test
+    void toMapsKeepsOnlyProjectedProperties() {
+        Actor actor = new Actor();
+        actor.setActorId(1);
+        actor.setFirstName("PENELOPE");
+        actor.setLastName("GUINESS");
+        FieldProjection.Projection projection = fieldProjection.resolve(ACTOR_RESULT_MAP, "lastName");
+
+        PageResponse<Map<String, Object>> page = fieldProjection.toMaps(projection,
+                new PageResponse<>(List.of(actor), 10, true, "token"));
+
+        assertEquals(List.of(Map.of("actorId", 1, "lastName", "GUINESS")), page.getItems());
+        assertEquals(List.of("actorId", "lastName"), List.copyOf(page.getItems().get(0).keySet()));
+        assertEquals("token", page.getNextToken());
+    }
+}
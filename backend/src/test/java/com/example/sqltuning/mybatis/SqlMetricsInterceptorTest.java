@@ -0,0 +1,111 @@
+package com.example.sqltuning.mybatis;
+
+import com.example.sqltuning.dto.StatementMetricsResponse;
+import com.example.sqltuning.metrics.SqlMetricsRegistry;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.RoutingStatementHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+class SqlMetricsInterceptorTest {
+
+    private final Configuration configuration = new Configuration();
+    private final SqlMetricsRegistry registry = new SqlMetricsRegistry();
+    private final SqlMetricsInterceptor interceptor = new SqlMetricsInterceptor(registry);
+
+    @Test
+    void recordsQueryRowsAndFirstSample() throws Exception {
+        MappedStatement select = statement("test.FilmMapper.findLongFilms", SqlCommandType.SELECT,
+                "SELECT film_id FROM film WHERE length > ?");
+        StatementHandler handler = handler(select, 90);
+        doReturn(List.of("a", "b")).when(handler).query(any(), any());
+
+        StatementHandler plugged = (StatementHandler) interceptor.plugin(handler);
+        plugged.query(mock(Statement.class), null);
+        plugged.query(mock(Statement.class), null);
+
+        StatementMetricsResponse metrics = registry.snapshot().get(0);
+        assertEquals("test.FilmMapper.findLongFilms", metrics.getStatementId());
+        assertEquals("SELECT", metrics.getCommandType());
+        assertEquals(4, metrics.getRows());
+        assertEquals(0, metrics.getErrors());
+        assertEquals(2, metrics.getLatency().getCount());
+
+        SqlMetricsRegistry.WorkloadStatement workload = registry.workload().get(0);
+        assertEquals("SELECT film_id FROM film WHERE length > ?", workload.sample().sql());
+        assertEquals(List.of(90), workload.sample().parameters());
+    }
+
+    @Test
+    void recordsUpdateCountWithoutSample() throws Exception {
+        MappedStatement update = statement("test.FilmMapper.updateRate", SqlCommandType.UPDATE,
+                "UPDATE film SET rental_rate = ?");
+        StatementHandler handler = handler(update, 1);
+        doReturn(3).when(handler).update(any());
+
+        ((StatementHandler) interceptor.plugin(handler)).update(mock(Statement.class));
+
+        assertEquals(3, registry.snapshot().get(0).getRows());
+        assertEquals(List.of(), registry.workload());
+    }
+
+    @Test
+    void recordsFailureAndRethrows() throws Exception {
+        MappedStatement select = statement("test.FilmMapper.broken", SqlCommandType.SELECT, "SELECT ?");
+        StatementHandler handler = handler(select, 1);
+        SQLException error = new SQLException("boom");
+        doThrow(error).when(handler).query(any(), any());
+
+        StatementHandler plugged = (StatementHandler) interceptor.plugin(handler);
+        SQLException thrown = assertThrows(SQLException.class, () -> plugged.query(mock(Statement.class), null));
+
+        assertSame(error, thrown);
+        assertEquals(1, registry.snapshot().get(0).getErrors());
+        assertEquals(List.of(), registry.workload());
+    }
+
+    @Test
+    void resolvesMappedStatementThroughRoutingHandler() {
+        MappedStatement select = statement("test.FilmMapper.findById", SqlCommandType.SELECT, "SELECT ?");
+        assertSame(select, SqlMetricsInterceptor.mappedStatementOf(handler(select, 1)));
+    }
+
+    private MappedStatement statement(String id, SqlCommandType commandType, String sql) {
+        List<ParameterMapping> parameterMappings = List.of(
+                new ParameterMapping.Builder(configuration, "value", Integer.class).build());
+        return new MappedStatement.Builder(configuration, id,
+                new StaticSqlSource(configuration, sql, parameterMappings), commandType)
+                .resultMaps(List.of(new ResultMap.Builder(configuration, id + "-Inline", Map.class, new ArrayList<>()).build()))
+                .build();
+    }
+
+    /**
+     * Configuration.newStatementHandler() と同じくRoutingStatementHandlerを使う（実行部分だけスタブにする）
+     */
+    private static StatementHandler handler(MappedStatement mappedStatement, Object parameter) {
+        return spy(new RoutingStatementHandler(mock(Executor.class), mappedStatement, parameter,
+                RowBounds.DEFAULT, null, mappedStatement.getBoundSql(parameter)));
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.sqltuning.mybatis;
+
+import com.example.sqltuning.dto.CacheMetricsResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TinyLfuCacheTest {
+
+    @Test
+    void missFollowedByLoadCountsOnce() {
+        TinyLfuCache cache = cache("missThenLoad", 100, 0);
+
+        load(cache, "film:1");
+
+        assertEquals(1, sketch(cache).frequency("film:1"));
+    }
+
+    @Test
+    void oneHitCandidateIsRejectedWhenMainIsFull() {
+        // window 1件、main 99件
+        TinyLfuCache cache = cache("rejectOneHit", 100, 0);
+        for (int i = 0; i < 100; i++) {
+            load(cache, "k" + i);
+        }
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 99; i++) {
+                cache.getObject("k" + i);
+            }
+        }
+
+        // k99がウィンドウから溢れるが、mainの追い出し候補より頻度が低いので入れない
+        load(cache, "once");
+
+        assertNull(peek(cache, "k99"));
+        assertNotNull(peek(cache, "k0"));
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals(100, cache.getSize());
+    }
+
+    @Test
+    void frequentCandidateReplacesVictim() {
+        TinyLfuCache cache = cache("admitFrequent", 100, 0);
+        for (int i = 0; i < 100; i++) {
+            load(cache, "k" + i);
+        }
+        for (int i = 0; i < 5; i++) {
+            cache.getObject("popular");
+        }
+        load(cache, "popular");
+        // popularをウィンドウから押し出す（k99は頻度が低いので、その前に追い出される）
+        load(cache, "next");
+
+        assertNotNull(peek(cache, "popular"));
+        assertNull(peek(cache, "k0"));
+    }
+
+    @Test
+    void protectedSegmentDemotesOldestToProbation() {
+        // window 1件、main 9件（protected 7件）
+        TinyLfuCache cache = cache("demotion", 10, 0);
+        for (int i = 0; i < 10; i++) {
+            load(cache, "k" + i);
+        }
+        for (int i = 0; i < 8; i++) {
+            cache.getObject("k" + i);
+        }
+
+        assertEquals(List.of("k1", "k2", "k3", "k4", "k5", "k6", "k7"), keys(cache, "protectedSegment"));
+        assertEquals(List.of("k8", "k0"), keys(cache, "probation"));
+        assertEquals(List.of("k9"), keys(cache, "window"));
+    }
+
+    @Test
+    void expiredEntryIsRemovedOnRead() throws InterruptedException {
+        TinyLfuCache cache = cache("ttl", 100, 20);
+        load(cache, "film:1");
+        assertEquals("film:1-value", cache.getObject("film:1"));
+
+        Thread.sleep(50);
+
+        assertNull(cache.getObject("film:1"));
+        CacheMetricsResponse stats = cache.stats();
+        assertEquals(1, stats.getExpirations());
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void clearDropsAllEntries() {
+        TinyLfuCache cache = cache("clear", 100, 0);
+        load(cache, "film:1");
+        load(cache, "film:2");
+
+        cache.clear();
+
+        assertEquals(0, cache.getSize());
+        assertEquals(1, cache.stats().getInvalidations());
+    }
+
+    @Test
+    void rejectsNonPositiveMaximumSize() {
+        TinyLfuCache cache = new TinyLfuCache("invalid");
+        cache.setMaximumSize(0);
+        assertThrows(IllegalArgumentException.class, cache::initialize);
+    }
+
+    @Test
+    void sketchHalvesCountersAfterSampleSize() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment("hot");
+        }
+        assertEquals(10, sketch.frequency("hot"));
+
+        // サンプルサイズ（16 * 10回）に達すると全カウンターが半減する（他のキーとの衝突分は多めに数えうる）
+        for (int i = 0; i < 150; i++) {
+            sketch.increment("other" + i);
+        }
+        int aged = sketch.frequency("hot");
+        assertTrue(aged >= 5 && aged < 10, "aged frequency: " + aged);
+    }
+
+    private static TinyLfuCache cache(String id, int maximumSize, long ttl) {
+        TinyLfuCache cache = new TinyLfuCache(TinyLfuCacheTest.class.getName() + "." + id);
+        cache.setMaximumSize(maximumSize);
+        cache.setTtl(ttl);
+        cache.initialize();
+        return cache;
+    }
+
+    /**
+     * MyBatisの読み込み（2次キャッシュを参照し、ミスならDBから取得して格納する）
+     */
+    private static void load(TinyLfuCache cache, String key) {
+        if (cache.getObject(key) == null) {
+            cache.putObject(key, key + "-value");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object peek(TinyLfuCache cache, String key) {
+        return ((Map<Object, Object>) ReflectionTestUtils.getField(cache, "data")).get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> keys(TinyLfuCache cache, String segment) {
+        return List.copyOf(((Map<Object, Object>) ReflectionTestUtils.getField(cache, segment)).keySet());
+    }
+
+    private static FrequencySketch sketch(TinyLfuCache cache) {
+        return (FrequencySketch) ReflectionTestUtils.getField(cache, "sketch");
+    }
+}
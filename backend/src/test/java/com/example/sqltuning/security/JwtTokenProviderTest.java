@@ -0,0 +1,62 @@
+package com.example.sqltuning.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtTokenProviderTest {
+
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = newProvider("test-secret-key-that-is-long-enough-for-hs512-signatures-0123456789");
+    }
+
+    private static JwtTokenProvider newProvider(String secret) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", secret);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 60_000L);
+        ReflectionTestUtils.setField(provider, "verifiedTokenCacheMaxEntries", 100);
+        provider.init();
+        return provider;
+    }
+
+    private static String tokenFor(JwtTokenProvider provider, String username) {
+        UserDetails user = User.withUsername(username).password("x").roles("USER").build();
+        return provider.generateToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Test
+    void verifiedTokenIsCachedOnce() {
+        String token = tokenFor(tokenProvider, "demo");
+
+        assertEquals("demo", tokenProvider.getVerifiedUsername(token));
+        assertEquals("demo", tokenProvider.getVerifiedUsername(token));
+        assertEquals(1, tokenProvider.getVerifiedTokenCacheSize());
+    }
+
+    @Test
+    void tamperedTokenIsRejectedAndNotCached() {
+        String token = tokenFor(tokenProvider, "demo");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(tokenProvider.getVerifiedUsername(tampered));
+        assertFalse(tokenProvider.validateToken("not-a-jwt"));
+        assertEquals(0, tokenProvider.getVerifiedTokenCacheSize());
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        JwtTokenProvider other = newProvider("another-secret-key-that-is-long-enough-for-hs512-signatures-98765");
+
+        assertNull(tokenProvider.getVerifiedUsername(tokenFor(other, "demo")));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.sqltuning.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ExplainPlanCacheTest {
+
+    @Test
+    void normalizeKeepsLikeWildcardPosition() {
+        String infix = ExplainPlanCache.normalize("SELECT * FROM film WHERE title LIKE '%ACADEMY%' ORDER BY title");
+        String prefix = ExplainPlanCache.normalize("SELECT * FROM film WHERE title LIKE 'ACADEMY%' ORDER BY title");
+
+        assertEquals("SELECT * FROM FILM WHERE TITLE LIKE '%?%' ORDER BY TITLE", infix);
+        assertEquals("SELECT * FROM FILM WHERE TITLE LIKE '?%' ORDER BY TITLE", prefix);
+        assertNotEquals(infix, prefix);
+    }
+
+    @Test
+    void normalizeIgnoresSearchTermAndWhitespace() {
+        assertEquals(
+                ExplainPlanCache.normalize("SELECT * FROM film WHERE title LIKE 'ACADEMY%'"),
+                ExplainPlanCache.normalize("SELECT *\n  FROM film WHERE title LIKE 'ZORRO%'"));
+    }
+
+    @Test
+    void normalizeReplacesPlainLiterals() {
+        assertEquals("SELECT * FROM FILM WHERE LENGTH > ? AND RATING = ?",
+                ExplainPlanCache.normalize("SELECT * FROM film WHERE length > 90 AND rating = 'PG'"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.sqltuning.service;
+
+import com.example.sqltuning.entity.Film;
+import com.example.sqltuning.mapper.FilmMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FilmStreamTest {
+
+    private final FilmMapper filmMapper = mock(FilmMapper.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final FilmService filmService = new FilmService(filmMapper, null, objectMapper, null, null);
+
+    @AfterEach
+    void tearDown() {
+        filmService.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cursor<Film> cursorOf(Iterator<Film> films) throws IOException {
+        Cursor<Film> cursor = mock(Cursor.class);
+        when(cursor.iterator()).thenReturn(films);
+        when(filmMapper.streamAllFilms()).thenReturn(cursor);
+        return cursor;
+    }
+
+    private static Film film(int id) {
+        Film film = new Film();
+        film.setFilmId(id);
+        film.setTitle("FILM " + id);
+        return film;
+    }
+
+    @Test
+    void writesOneJsonObjectPerLine() throws IOException {
+        // flush間隔をまたぐ件数
+        List<Film> films = IntStream.rangeClosed(1, 1201).mapToObj(FilmStreamTest::film).toList();
+        Cursor<Film> cursor = cursorOf(films.iterator());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        filmService.streamAllFilms(out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        List<String> lines = body.lines().toList();
+        assertEquals(1201, lines.size());
+        assertEquals('\n', body.charAt(body.length() - 1));
+        for (int i = 0; i < lines.size(); i++) {
+            JsonNode node = objectMapper.readTree(lines.get(i));
+            assertEquals(i + 1, node.get("filmId").asInt());
+            assertEquals("FILM " + (i + 1), node.get("title").asText());
+        }
+        verify(cursor).close();
+    }
+
+    @Test
+    void emptyCursorWritesOnlyNewline() throws IOException {
+        cursorOf(List.<Film>of().iterator());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        filmService.streamAllFilms(out);
+
+        assertEquals("\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void cursorIsClosedWhenClientDisconnects() throws IOException {
+        Cursor<Film> cursor = cursorOf(IntStream.rangeClosed(1, 1000).mapToObj(FilmStreamTest::film).iterator());
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(IOException.class, () -> filmService.streamAllFilms(broken));
+        verify(cursor).close();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.sqltuning.service;
+
+import com.example.sqltuning.entity.Film;
+import com.example.sqltuning.mapper.FilmMapper;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class FilmTrigramIndexTest {
+
+    @Test
+    void searchReturnsInfixMatchesInScanOrder() {
+        FilmTrigramIndex index = build(false,
+                film(3, "ACADEMY DINOSAUR", null),
+                film(1, "ACE GOLDFINGER", null),
+                film(2, "DINOSAUR SECRETARY", null));
+
+        assertEquals(List.of(3, 2), index.search("dinosaur", false, 10));
+        assertEquals(List.of(3), index.search("ADEMY", false, 10));
+        assertEquals(List.of(), index.search("ZORRO", false, 10));
+    }
+
+    @Test
+    void searchStopsAtLimit() {
+        FilmTrigramIndex index = build(false,
+                film(1, "LOVE ACTUALLY", null),
+                film(2, "LOVE SUICIDES", null),
+                film(3, "LOVELY JINGLE", null));
+
+        assertEquals(List.of(1, 2), index.search("LOVE", false, 2));
+    }
+
+    @Test
+    void searchMatchesDescriptionOnlyWhenIndexed() {
+        FilmTrigramIndex index = build(true,
+                film(1, "ACADEMY DINOSAUR", "A Epic Drama of a Feminist"),
+                film(2, "ACE GOLDFINGER", "A Astounding Epistle of a Database Administrator"));
+
+        assertEquals(List.of(2), index.search("database", true, 10));
+        assertEquals(List.of(), index.search("database", false, 10));
+    }
+
+    @Test
+    void foldIgnoresCaseAccentsAndWidth() {
+        assertEquals("cafe", FilmTrigramIndex.fold("CAFÉ"));
+        assertEquals("abc", FilmTrigramIndex.fold("ＡＢＣ"));
+        assertEquals("naive", FilmTrigramIndex.fold("Naïve"));
+
+        FilmTrigramIndex index = build(false, film(1, "CAFÉ SOCIETY", null));
+        assertEquals(List.of(1), index.search("cafe", false, 10));
+        assertEquals(List.of(1), index.search("ｃａｆé", false, 10));
+    }
+
+    @Test
+    void shortTermScansAllDocumentsUpToLimit() {
+        FilmTrigramIndex index = build(false,
+                film(1, "ACADEMY DINOSAUR", null),
+                film(2, "BLADE RUNNER", null),
+                film(3, "ZORRO ARK", null),
+                film(4, "ZOOLANDER FICTION", null));
+
+        assertEquals(List.of(3, 4), index.search("zo", false, 10));
+        assertEquals(List.of(1), index.search("a", false, 1));
+    }
+
+    @Test
+    void searchBeforeBuildFails() {
+        FilmTrigramIndex index = new FilmTrigramIndex(mock(FilmMapper.class));
+        assertFalse(index.isReady());
+        assertThrows(IllegalStateException.class, () -> index.search("ACADEMY", false, 10));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FilmTrigramIndex build(boolean includeDescription, Film... films) {
+        FilmMapper filmMapper = mock(FilmMapper.class);
+        doAnswer(invocation -> {
+            ResultHandler<Film> handler = invocation.getArgument(1);
+            DefaultResultContext<Film> context = new DefaultResultContext<>();
+            for (Film film : films) {
+                context.nextResultObject(film);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(filmMapper).scanFilmTexts(anyBoolean(), any(ResultHandler.class));
+
+        FilmTrigramIndex index = new FilmTrigramIndex(filmMapper);
+        ReflectionTestUtils.setField(index, "includeDescription", includeDescription);
+        index.rebuild();
+        return index;
+    }
+
+    private static Film film(int filmId, String title, String description) {
+        Film film = new Film();
+        film.setFilmId(filmId);
+        film.setTitle(title);
+        film.setDescription(description);
+        return film;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.sqltuning.service;
+
+import com.example.sqltuning.service.FilmService.FulltextQuery;
+import com.example.sqltuning.support.KeysetPagination;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FulltextQueryTest {
+
+    @Test
+    void stripsQuotesAndSurroundingWhitespace() {
+        assertEquals("ACADEMY DINO", FulltextQuery.of("  \"ACADEMY DINO\" ", 0, 20).phrase());
+    }
+
+    @Test
+    void defaultsAndClampsPageAndLimit() {
+        assertEquals(new FulltextQuery("LOVE", 0, KeysetPagination.DEFAULT_LIMIT), FulltextQuery.of("LOVE", null, null));
+        assertEquals(new FulltextQuery("LOVE", 0, KeysetPagination.MAX_LIMIT), FulltextQuery.of("LOVE", -3, 50_000));
+        assertEquals(new FulltextQuery("LOVE", 2, 1), FulltextQuery.of("LOVE", 2, 0));
+    }
+
+    @Test
+    void requestsThatSearchTheSameAreEqual() {
+        // シングルフライトのキーとして同じ検索になるリクエストが一致する
+        assertEquals(FulltextQuery.of("\"LOVE\"", null, 100), FulltextQuery.of(" LOVE ", 0, null));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.sqltuning.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BatchLoaderTest {
+
+    private final List<List<Integer>> queries = new ArrayList<>();
+
+    @Test
+    void resolvesDuplicateKeysWithOneQuery() {
+        BatchLoader<Integer, String> loader = new BatchLoader<>(recording(id -> "lang" + id));
+        List<String> resolved = new ArrayList<>();
+
+        for (int id : new int[]{1, 2, 1, 1, 2}) {
+            loader.load(id, resolved::add);
+        }
+        assertEquals(List.of(), resolved);
+        loader.dispatch();
+
+        assertEquals(List.of(List.of(1, 2)), queries);
+        assertEquals(1, loader.getBatchCount());
+        // 結果はキーの登録順にまとめて渡される
+        assertEquals(List.of("lang1", "lang1", "lang1", "lang2", "lang2"), resolved);
+    }
+
+    @Test
+    void splitsKeysIntoChunks() {
+        BatchLoader<Integer, String> loader = new BatchLoader<>(recording(id -> "v" + id), 2);
+        for (int id = 1; id <= 5; id++) {
+            loader.load(id, value -> { });
+        }
+        loader.dispatch();
+
+        assertEquals(List.of(List.of(1, 2), List.of(3, 4), List.of(5)), queries);
+        assertEquals(3, loader.getBatchCount());
+    }
+
+    @Test
+    void memoizesHitsAndMisses() {
+        BatchLoader<Integer, String> loader = new BatchLoader<>(recording(id -> id == 1 ? "found" : null));
+        loader.load(1, value -> { });
+        loader.load(2, value -> { });
+        loader.dispatch();
+
+        List<String> resolved = new ArrayList<>();
+        loader.load(1, resolved::add);
+        loader.load(2, resolved::add);
+        loader.dispatch();
+
+        // 2回目は問い合わせず、見つからなかったキーもnullとしてメモから返す
+        assertEquals(1, queries.size());
+        assertEquals("found", resolved.get(0));
+        assertNull(resolved.get(1));
+    }
+
+    @Test
+    void nullKeyResolvesImmediatelyWithoutQuery() {
+        BatchLoader<Integer, String> loader = new BatchLoader<>(recording(id -> "v" + id));
+        List<String> resolved = new ArrayList<>();
+
+        loader.load(null, resolved::add);
+        loader.dispatch();
+
+        assertEquals(1, resolved.size());
+        assertNull(resolved.get(0));
+        assertEquals(List.of(), queries);
+        assertEquals(0, loader.getBatchCount());
+    }
+
+    /**
+     * 問い合わせたキーを記録するバッチ関数（valueOfがnullを返すキーは結果に含めない）
+     */
+    private Function<Collection<Integer>, Map<Integer, String>> recording(Function<Integer, String> valueOf) {
+        return ids -> {
+            queries.add(List.copyOf(ids));
+            Map<Integer, String> rows = new HashMap<>();
+            for (Integer id : ids) {
+                String value = valueOf.apply(id);
+                if (value != null) {
+                    rows.put(id, value);
+                }
+            }
+            return rows;
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.sqltuning.support;
+
+import com.example.sqltuning.dto.BatchLookupResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchLookupTest {
+
+    private final List<Collection<Integer>> calls = new ArrayList<>();
+
+    // 偶数IDだけが存在するテーブルを模したバッチ関数
+    private final Function<Collection<Integer>, Map<Integer, String>> evenOnly = ids -> {
+        calls.add(List.copyOf(ids));
+        return ids.stream().filter(id -> id % 2 == 0).collect(Collectors.toMap(id -> id, id -> "row-" + id));
+    };
+
+    @Test
+    void resultsFollowRequestOrderWithDuplicatesAndMissingIds() {
+        BatchLookupResponse<String> response = BatchLookup.lookup(List.of(4, 3, 2, 4), 10, evenOnly);
+
+        List<BatchLookupResponse.Item<String>> results = response.getResults();
+        assertEquals(List.of(4, 3, 2, 4), results.stream().map(BatchLookupResponse.Item::getId).toList());
+        assertEquals("row-4", results.get(0).getItem());
+        assertFalse(results.get(1).isFound());
+        assertNull(results.get(1).getItem());
+        assertEquals("row-2", results.get(2).getItem());
+        assertEquals("row-4", results.get(3).getItem());
+
+        assertEquals(4, response.getRequested());
+        assertEquals(3, response.getFound());
+        assertEquals(1, response.getMissing());
+        // 重複IDは1回だけ問い合わせる
+        assertEquals(1, response.getQueryCount());
+        assertEquals(List.of(List.of(4, 3, 2)), calls);
+    }
+
+    @Test
+    void largeRequestsAreChunked() {
+        int count = BatchLoader.DEFAULT_MAX_BATCH_SIZE * 2 + 1;
+        List<Integer> ids = IntStream.rangeClosed(1, count).boxed().toList();
+
+        BatchLookupResponse<String> response = BatchLookup.lookup(ids, count, evenOnly);
+
+        assertEquals(3, response.getQueryCount());
+        assertEquals(3, calls.size());
+        assertTrue(calls.stream().allMatch(chunk -> chunk.size() <= BatchLoader.DEFAULT_MAX_BATCH_SIZE));
+        assertEquals(count / 2, response.getFound());
+    }
+
+    @Test
+    void invalidRequestsAreRejectedBeforeQuerying() {
+        List<List<Integer>> invalid = List.of(List.of(), List.of(1, 2, 3), Arrays.asList(1, null));
+        for (List<Integer> ids : invalid) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> BatchLookup.lookup(ids, 2, evenOnly), String.valueOf(ids));
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+        assertThrows(ResponseStatusException.class, () -> BatchLookup.lookup(null, 2, evenOnly));
+        assertTrue(calls.isEmpty());
+    }
+}
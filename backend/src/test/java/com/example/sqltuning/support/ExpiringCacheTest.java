@@ -0,0 +1,80 @@
+package com.example.sqltuning.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExpiringCacheTest {
+
+    @Test
+    void entriesExpireAtTheirDeadline() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(60_000, 10);
+        long now = System.currentTimeMillis();
+        cache.put("live", "a", now + 60_000);
+        cache.put("expired", "b", now - 1);
+
+        assertEquals("a", cache.get("live"));
+        assertNull(cache.get("expired"));
+        // 期限切れは参照時に削除される
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void zeroTtlIsNeverReturned() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(0, 10);
+        cache.put("key", "value");
+
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    void expiredEntriesAreEvictedFirstWhenFull() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(60_000, 2);
+        cache.put("expired", "a", System.currentTimeMillis() - 1);
+        cache.put("live", "b");
+
+        cache.put("new", "c");
+
+        assertEquals(2, cache.size());
+        assertEquals("b", cache.get("live"));
+        assertEquals("c", cache.get("new"));
+    }
+
+    @Test
+    void sizeStaysWithinLimit() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(60_000, 3);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i);
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(9, cache.get(9));
+    }
+
+    @Test
+    void overwritingExistingKeyDoesNotEvict() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(60_000, 2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        cache.put("a", "3");
+
+        assertEquals("3", cache.get("a"));
+        assertEquals("2", cache.get("b"));
+    }
+
+    @Test
+    void invalidateRemovesEntries() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(60_000, 10);
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        cache.invalidate("a");
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.size());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+}
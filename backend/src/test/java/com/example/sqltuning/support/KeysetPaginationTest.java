@@ -0,0 +1,78 @@
+package com.example.sqltuning.support;
+
+import com.example.sqltuning.dto.PageResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetPaginationTest {
+
+    @Test
+    void tokenRoundTrips() {
+        String token = KeysetPagination.encodeToken("films", 1042);
+
+        assertEquals(1042, KeysetPagination.resolveAfter("films", null, token));
+    }
+
+    @Test
+    void tokenTakesPrecedenceOverAfter() {
+        String token = KeysetPagination.encodeToken("actors", 7);
+
+        assertEquals(7, KeysetPagination.resolveAfter("actors", 500, token));
+        assertEquals(500, KeysetPagination.resolveAfter("actors", 500, null));
+        assertEquals(500, KeysetPagination.resolveAfter("actors", 500, " "));
+    }
+
+    @Test
+    void tokenForAnotherResourceIsRejected() {
+        String token = KeysetPagination.encodeToken("films", 10);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> KeysetPagination.resolveAfter("customers", null, token));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        for (String token : List.of("not base64!", KeysetPagination.encodeToken("films", null), "Zm9vYmFy")) {
+            assertThrows(ResponseStatusException.class, () -> KeysetPagination.resolveAfter("films", null, token),
+                    token);
+        }
+    }
+
+    @Test
+    void limitIsClamped() {
+        assertEquals(KeysetPagination.DEFAULT_LIMIT, KeysetPagination.clampLimit(null));
+        assertEquals(1, KeysetPagination.clampLimit(0));
+        assertEquals(1, KeysetPagination.clampLimit(-5));
+        assertEquals(250, KeysetPagination.clampLimit(250));
+        assertEquals(KeysetPagination.MAX_LIMIT, KeysetPagination.clampLimit(KeysetPagination.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void extraRowMeansMorePagesAndTokenPointsAtLastItem() {
+        PageResponse<Integer> page = KeysetPagination.toPage("films", List.of(11, 12, 13), 2, Function.identity());
+
+        assertEquals(List.of(11, 12), page.getItems());
+        assertTrue(page.getHasMore());
+        assertEquals(12, KeysetPagination.resolveAfter("films", null, page.getNextToken()));
+    }
+
+    @Test
+    void lastPageHasNoToken() {
+        PageResponse<Integer> page = KeysetPagination.toPage("films", List.of(11, 12), 2, Function.identity());
+
+        assertEquals(List.of(11, 12), page.getItems());
+        assertFalse(page.getHasMore());
+        assertNull(page.getNextToken());
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.sqltuning.support;
+
+import com.example.sqltuning.dto.SingleFlightMetricsResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SingleFlight singleFlight = new SingleFlight(true);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalCallsShareOneExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        Object result = new Object();
+
+        Future<Object> leader = submit(() -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return result;
+        }, "LOVE");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        List<Future<Object>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(submit(() -> {
+                executions.incrementAndGet();
+                return new Object();
+            }, "LOVE"));
+        }
+        awaitCoalesced(3);
+        release.countDown();
+
+        assertSame(result, leader.get(5, TimeUnit.SECONDS));
+        for (Future<Object> follower : followers) {
+            assertSame(result, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        SingleFlightMetricsResponse metrics = singleFlight.snapshot().get(0);
+        assertEquals(4, metrics.getCalls());
+        assertEquals(1, metrics.getExecutions());
+        assertEquals(0.75, metrics.getCoalescingRatio());
+    }
+
+    @Test
+    void followersReceiveTheLeadersException() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("DB error");
+
+        Future<Object> leader = submit(() -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        }, "LOVE");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Object> follower = submit(Object::new, "LOVE");
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS)).getCause());
+        assertEquals(1, singleFlight.snapshot().get(0).getFailures());
+    }
+
+    @Test
+    void keyIsRemovedAfterCompletion() {
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute("films.search.slow", executions::incrementAndGet, "LOVE");
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("films.search.slow", () -> {
+            throw new IllegalStateException("DB error");
+        }, "LOVE"));
+        singleFlight.execute("films.search.slow", executions::incrementAndGet, "LOVE");
+
+        // 完了した呼び出しの結果は保持しないため、次の呼び出しは再び実行される
+        assertEquals(2, executions.get());
+        SingleFlightMetricsResponse metrics = singleFlight.snapshot().get(0);
+        assertEquals(3, metrics.getExecutions());
+        assertEquals(0, metrics.getCoalesced());
+        assertEquals(0, metrics.getInFlight());
+    }
+
+    @Test
+    void differentArgumentsDoNotCoalesce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Object> love = submit(() -> {
+            started.countDown();
+            await(release);
+            return "LOVE";
+        }, "LOVE", null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals("love", singleFlight.execute("films.search.slow", () -> "love", "love", null));
+        release.countDown();
+        assertEquals("LOVE", love.get(5, TimeUnit.SECONDS));
+        assertEquals(0, singleFlight.snapshot().get(0).getCoalesced());
+    }
+
+    @Test
+    void disabledCallsSupplierDirectly() {
+        SingleFlight disabled = new SingleFlight(false);
+        AtomicInteger executions = new AtomicInteger();
+
+        disabled.execute("films.search.slow", executions::incrementAndGet, "LOVE");
+        disabled.execute("films.search.slow", executions::incrementAndGet, "LOVE");
+
+        assertEquals(2, executions.get());
+        assertEquals(List.of(), disabled.snapshot());
+    }
+
+    private Future<Object> submit(Supplier<Object> supplier, Object... args) {
+        return executor.submit(() -> singleFlight.execute("films.search.slow", supplier, args));
+    }
+
+    private void awaitCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.snapshot().get(0).getCoalesced() < expected) {
+            assertTrue(System.nanoTime() < deadline, "相乗りした呼び出しが揃いません");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.sqltuning.benchmark;
+
+import com.example.sqltuning.dto.PageResponse;
+import com.example.sqltuning.entity.Customer;
+import com.example.sqltuning.service.CustomerSummaryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 住所付き顧客一覧の比較ベンチマーク（4テーブルJOIN / サマリーテーブル）
+ *
+ * 1回の呼び出しで、キーセットページネーションで全ページを読み切る。
+ * 08-increase-customer-data.sql で顧客を増やし、11-create-customer-address-summary.sql で
+ * サマリーテーブルを作成したSakilaで実行する。サマリーは@Setupで差分更新してから計測する。
+ * countryが空文字の場合は全件、指定した場合はその国の顧客だけを読む。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class CustomerAddressBenchmark {
+
+    @Param({"", "Japan"})
+    public String country;
+
+    @Param({"1000"})
+    public int pageSize;
+
+    private SakilaContext sakila;
+    private CustomerSummaryService customerSummaryService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sakila = SakilaContext.start();
+        customerSummaryService = sakila.getBean(CustomerSummaryService.class);
+        customerSummaryService.refresh();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sakila.close();
+    }
+
+    @Benchmark
+    public int customersWithAddressLive() {
+        int rows = 0;
+        String token = null;
+        do {
+            PageResponse<Customer> page = customerSummaryService.getLivePage(null, token, pageSize, countryOrNull());
+            rows += page.getItems().size();
+            token = page.getNextToken();
+        } while (token != null);
+        return rows;
+    }
+
+    @Benchmark
+    public int customersWithAddressSummary() {
+        int rows = 0;
+        String token = null;
+        do {
+            PageResponse<Customer> page = customerSummaryService.getSummaryPage(null, token, pageSize, countryOrNull());
+            rows += page.getItems().size();
+            token = page.getNextToken();
+        } while (token != null);
+        return rows;
+    }
+
+    private String countryOrNull() {
+        return country.isEmpty() ? null : country;
+    }
+}
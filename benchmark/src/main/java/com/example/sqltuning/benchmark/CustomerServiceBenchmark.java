@@ -0,0 +1,56 @@
+package com.example.sqltuning.benchmark;
+
+import com.example.sqltuning.dto.CustomerResponse;
+import com.example.sqltuning.service.CustomerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CustomerServiceの遅い/速いバージョンの比較ベンチマーク
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class CustomerServiceBenchmark {
+
+    private SakilaContext sakila;
+    private CustomerService customerService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sakila = SakilaContext.start();
+        customerService = sakila.getBean(CustomerService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sakila.close();
+    }
+
+    // デモ4: 顧客一覧
+
+    @Benchmark
+    public CustomerResponse getAllCustomersSlow() {
+        return customerService.getAllCustomersSlow();
+    }
+
+    @Benchmark
+    public CustomerResponse getAllCustomersFast() {
+        return customerService.getAllCustomersFast();
+    }
+}
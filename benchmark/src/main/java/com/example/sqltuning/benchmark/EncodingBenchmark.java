@@ -0,0 +1,104 @@
+package com.example.sqltuning.benchmark;
+
+import com.example.sqltuning.entity.Customer;
+import com.example.sqltuning.entity.Film;
+import com.example.sqltuning.mapper.CustomerMapper;
+import com.example.sqltuning.service.FilmService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * レスポンスのエンコード形式（JSON / CBOR / Smile）の比較ベンチマーク
+ *
+ * アプリケーションと同じObjectMapper（HttpMessageConverterのもの）で、DBから一度だけ読み込んだ
+ * 映画一覧・顧客一覧をエンコードする時間を計測する。エンコード後のバイト数は@Setupで標準出力に表示する。
+ * データ拡張スクリプトやバルクローダーで件数を増やしたSakilaで実行することを想定している。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class EncodingBenchmark {
+
+    // エンコードする顧客の件数（先頭から）
+    @Param({"100000"})
+    public int customerRows;
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+    private List<Film> films;
+    private List<Customer> customers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        try (SakilaContext sakila = SakilaContext.start()) {
+            json = sakila.getBean(ObjectMapper.class);
+            cbor = sakila.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+            smile = sakila.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+            films = sakila.getBean(FilmService.class).getAllFilms();
+            customers = sakila.getBean(CustomerMapper.class).findCustomersAfter(null, customerRows);
+        }
+        printSizes("films (" + films.size() + "件)", films);
+        printSizes("customers (" + customers.size() + "件)", customers);
+    }
+
+    private void printSizes(String label, Object value) throws JsonProcessingException {
+        int jsonBytes = json.writeValueAsBytes(value).length;
+        int cborBytes = cbor.writeValueAsBytes(value).length;
+        int smileBytes = smile.writeValueAsBytes(value).length;
+        System.out.printf("%n%s: json=%,d bytes, cbor=%,d bytes (%.0f%%), smile=%,d bytes (%.0f%%)%n",
+                label, jsonBytes,
+                cborBytes, 100.0 * cborBytes / jsonBytes,
+                smileBytes, 100.0 * smileBytes / jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] filmsJson() throws JsonProcessingException {
+        return json.writeValueAsBytes(films);
+    }
+
+    @Benchmark
+    public byte[] filmsCbor() throws JsonProcessingException {
+        return cbor.writeValueAsBytes(films);
+    }
+
+    @Benchmark
+    public byte[] filmsSmile() throws JsonProcessingException {
+        return smile.writeValueAsBytes(films);
+    }
+
+    @Benchmark
+    public byte[] customersJson() throws JsonProcessingException {
+        return json.writeValueAsBytes(customers);
+    }
+
+    @Benchmark
+    public byte[] customersCbor() throws JsonProcessingException {
+        return cbor.writeValueAsBytes(customers);
+    }
+
+    @Benchmark
+    public byte[] customersSmile() throws JsonProcessingException {
+        return smile.writeValueAsBytes(customers);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.sqltuning.benchmark;
+
+import com.example.sqltuning.dto.FilmResponse;
+import com.example.sqltuning.service.FilmService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FilmServiceの遅い/速いバージョンの比較ベンチマーク
+ *
+ * 各ペアは同じ引数で計測し、スループット・平均時間・アロケーションレート
+ * （BenchmarkRunnerで有効化するGCプロファイラ）を並べて比較する。
+ *
+ * explainModeでEXPLAINの実行方式（従来の逐次実行 / 並行実行）を切り替えて比較する。
+ * 既定ではEXPLAINキャッシュを無効（TTL=0）にして毎回EXPLAINを実行させる。
+ * キャッシュの効果も見る場合は -p explainCacheTtl=0,300000 を指定する。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class FilmServiceBenchmark {
+
+    @Param({"ACADEMY"})
+    public String title;
+
+    @Param({"90"})
+    public int minLength;
+
+    @Param({"SEQUENTIAL", "PARALLEL"})
+    public String explainMode;
+
+    @Param({"0"})
+    public long explainCacheTtl;
+
+    private SakilaContext sakila;
+    private FilmService filmService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sakila = SakilaContext.start(
+                "demo.explain.mode=" + explainMode,
+                "explain.cache.ttl=" + explainCacheTtl);
+        filmService = sakila.getBean(FilmService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sakila.close();
+    }
+
+    // デモ1: タイトル検索
+
+    @Benchmark
+    public FilmResponse searchFilmsByTitleSlow() {
+        return filmService.searchFilmsByTitleSlow(title);
+    }
+
+    @Benchmark
+    public FilmResponse searchFilmsByTitleFast() {
+        return filmService.searchFilmsByTitleFast(title);
+    }
+
+    // デモ2: N+1問題
+
+    @Benchmark
+    public FilmResponse getFilmsWithLanguageSlow() {
+        return filmService.getFilmsWithLanguageSlow();
+    }
+
+    @Benchmark
+    public FilmResponse getFilmsWithLanguageBatched() {
+        return filmService.getFilmsWithLanguageBatched();
+    }
+
+    @Benchmark
+    public FilmResponse getFilmsWithLanguageFast() {
+        return filmService.getFilmsWithLanguageFast();
+    }
+
+    // デモ3: サブクエリ
+
+    @Benchmark
+    public FilmResponse getFilmsComplexSlow() {
+        return filmService.getFilmsComplexSlow(minLength);
+    }
+
+    @Benchmark
+    public FilmResponse getFilmsComplexFast() {
+        return filmService.getFilmsComplexFast(minLength);
+    }
+
+    @Benchmark
+    public FilmResponse getFilmsComplexPrecomputed() {
+        return filmService.getFilmsComplexPrecomputed(minLength);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.sqltuning.benchmark;
+
+import com.example.sqltuning.SqlTuningDemoApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ベンチマーク用のSpringコンテキスト
+ *
+ * ローカルで起動したSakila（database/scriptsで初期化済み）に接続し、
+ * Webサーバーを起動せずにサービス層のBeanだけを利用する。
+ * 各ベンチマークの@Setup(Level.Trial)で起動し、@TearDownで閉じる。
+ */
+public class SakilaContext implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    private SakilaContext(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * @param extraProperties ベンチマークごとに上書きするプロパティ（key=value形式）
+     */
+    public static SakilaContext start(String... extraProperties) {
+        // application.ymlより優先させるため、コマンドライン引数（--key=value）として渡す
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=" + System.getProperty("sakila.url",
+                        "jdbc:mysql://localhost:3306/sakila?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true"),
+                "spring.datasource.username=" + System.getProperty("sakila.username", "root"),
+                "spring.datasource.password=" + System.getProperty("sakila.password", "password"),
+                // 計測を歪めないようにSQLログとDEBUGログを無効化
+                "mybatis.configuration.log-impl=org.apache.ibatis.logging.nologging.NoLoggingImpl",
+                "logging.level.root=WARN",
+                "logging.level.com.example.sqltuning=WARN",
+                "logging.level.org.springframework.security=WARN"));
+        properties.addAll(List.of(extraProperties));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SqlTuningDemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+        verifyApplied(context, properties);
+        return new SakilaContext(context);
+    }
+
+    /**
+     * 上書きしたプロパティが実際に有効になっていることを確認する
+     * （application.ymlに負けるとSQLログ出力中の値や別の接続先を計測してしまうため）
+     */
+    private static void verifyApplied(ConfigurableApplicationContext context, List<String> properties) {
+        for (String property : properties) {
+            int separator = property.indexOf('=');
+            String key = property.substring(0, separator);
+            String expected = property.substring(separator + 1);
+            String actual = context.getEnvironment().getProperty(key);
+            if (!expected.equals(actual)) {
+                context.close();
+                throw new IllegalStateException(
+                        "ベンチマーク用の設定が反映されていません: " + key + "（期待値: " + expected + ", 実際: " + actual + "）");
+            }
+        }
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.sqltuning.bulkloader;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * JDBCバッチによる書き込み
+ *
+ * 接続URLの rewriteBatchedStatements=true により、Connector/Jがバッチを
+ * 複数行の INSERT ... VALUES (...), (...), ... に書き換えて送信する。
+ */
+class BatchInsertSink implements RowSink {
+
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private int pending;
+
+    BatchInsertSink(Connection connection, TableKind table, int batchSize) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(table.columns().size(), "?"));
+        this.statement = connection.prepareStatement(
+                "INSERT INTO " + table.table() + " (" + String.join(", ", table.columns()) + ")"
+                        + " VALUES (" + placeholders + ")");
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void add(Object[] row) throws SQLException {
+        for (int i = 0; i < row.length; i++) {
+            statement.setObject(i + 1, row[i]);
+        }
+        statement.addBatch();
+        if (++pending >= batchSize) {
+            statement.executeBatch();
+            pending = 0;
+        }
+    }
+
+    @Override
+    public void finish() throws SQLException {
+        try {
+            if (pending > 0) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        } finally {
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.sqltuning.bulkloader;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sakilaデータベースに再現可能な合成データを大量投入するバルクローダー
+ *
+ * optional配下のSQLスクリプト（INSERT ... SELECT の繰り返し）の代わりに、
+ * チャンク単位でデータを生成して並列のワーカーで投入する。各ワーカーは自分の接続で
+ * 外部キー・一意性チェックを無効にし、チャンクごとにコミットする。
+ *
+ * 1. actor / film / customer を並列に投入（IDは既存の最大値の続きから明示的に採番）
+ * 2. 全actorのIDを読み込み、新しいfilmごとの出演者（film_actor）を並列に投入
+ * 3. ANALYZE TABLE で統計情報を更新
+ *
+ * 使い方:
+ *   mvn -q compile exec:exec -Dloader.args="--films=1000000 --actors=100000 --film-actors-per-film=10"
+ *
+ * 主な引数: --films --actors --customers --film-actors-per-film --seed --threads
+ *           --chunk-size --batch-size --mode=batch|infile --work-dir --keep-files
+ */
+public class BulkLoader {
+
+    // SMALLINT UNSIGNEDの上限（それを超える場合は optional/10-expand-id-types-for-bulk-load.sql が必要）
+    private static final long SMALLINT_UNSIGNED_MAX = 65_535;
+
+    private final LoaderOptions options;
+    private final SyntheticData data;
+    private final AtomicLong totalRows = new AtomicLong();
+
+    BulkLoader(LoaderOptions options) {
+        this.options = options;
+        this.data = new SyntheticData(options.seed());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoaderOptions options = LoaderOptions.parse(args);
+        new BulkLoader(options).run();
+    }
+
+    void run() throws SQLException, InterruptedException {
+        long startTime = System.currentTimeMillis();
+        long actorBase;
+        long filmBase;
+        long customerBase;
+        int[] addressIds;
+        try (Connection connection = connect()) {
+            actorBase = maxId(connection, TableKind.ACTOR);
+            filmBase = maxId(connection, TableKind.FILM);
+            customerBase = maxId(connection, TableKind.CUSTOMER);
+            checkIdCapacity(connection, "actor", "actor_id", actorBase + options.actors());
+            checkIdCapacity(connection, "film_actor", "actor_id", actorBase + options.actors());
+            checkIdCapacity(connection, "film", "film_id", filmBase + options.films());
+            checkIdCapacity(connection, "film_actor", "film_id", filmBase + options.films());
+            checkIdCapacity(connection, "customer", "customer_id", customerBase + options.customers());
+            addressIds = loadIds(connection, "SELECT address_id FROM address ORDER BY address_id")
+                    .stream().mapToInt(Long::intValue).toArray();
+        }
+        if (options.customers() > 0 && addressIds.length == 0) {
+            throw new IllegalStateException("addressテーブルが空のためcustomerを生成できません");
+        }
+        System.out.printf("バルクロード開始: film %,d件, actor %,d件, customer %,d件, 出演者 平均%d人/本, "
+                        + "モード %s, スレッド %d, シード %d%n",
+                options.films(), options.actors(), options.customers(), options.filmActorsPerFilm(),
+                options.mode(), options.threads(), options.seed());
+
+        ExecutorService workers = Executors.newFixedThreadPool(options.threads());
+        try {
+            List<Future<?>> phase1 = new ArrayList<>();
+            submitChunks(workers, phase1, TableKind.ACTOR, options.actors(),
+                    (index, random, sink) -> sink.add(data.actor(actorBase + index + 1, random)));
+            submitChunks(workers, phase1, TableKind.FILM, options.films(),
+                    (index, random, sink) -> sink.add(data.film(filmBase + index + 1, random)));
+            submitChunks(workers, phase1, TableKind.CUSTOMER, options.customers(),
+                    (index, random, sink) -> sink.add(data.customer(customerBase + index + 1, addressIds, random)));
+            await(phase1);
+
+            if (options.films() > 0 && options.filmActorsPerFilm() > 0) {
+                long[] actorIds;
+                try (Connection connection = connect()) {
+                    actorIds = loadIds(connection, "SELECT actor_id FROM actor ORDER BY actor_id")
+                            .stream().mapToLong(Long::longValue).toArray();
+                }
+                if (actorIds.length == 0) {
+                    throw new IllegalStateException("actorテーブルが空のためfilm_actorを生成できません");
+                }
+                List<Future<?>> phase2 = new ArrayList<>();
+                submitChunks(workers, phase2, TableKind.FILM_ACTOR, options.films(), (index, random, sink) -> {
+                    long filmId = filmBase + index + 1;
+                    for (long actorId : data.filmActors(actorIds, options.filmActorsPerFilm(), random)) {
+                        sink.add(new Object[]{actorId, filmId});
+                    }
+                });
+                await(phase2);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            for (TableKind table : TableKind.values()) {
+                statement.execute("ANALYZE TABLE " + table.table());
+            }
+        }
+
+        long elapsedMs = System.currentTimeMillis() - startTime;
+        System.out.printf("バルクロード完了: 合計 %,d行, %.1f秒, %,.0f行/秒%n",
+                totalRows.get(), elapsedMs / 1000.0, totalRows.get() * 1000.0 / Math.max(1, elapsedMs));
+    }
+
+    /**
+     * 論理的な行番号 0..count-1 をチャンクに分けてワーカーに投入する
+     * （FILM_ACTORの行番号は映画の番号で、1行番号あたり複数行を書き込む）
+     */
+    private void submitChunks(ExecutorService workers, List<Future<?>> futures,
+                              TableKind table, long count, RowGenerator generator) {
+        long chunks = (count + options.chunkSize() - 1) / options.chunkSize();
+        for (long chunk = 0; chunk < chunks; chunk++) {
+            long chunkIndex = chunk;
+            long from = chunk * options.chunkSize();
+            long to = Math.min(count, from + options.chunkSize());
+            futures.add(workers.submit(() -> {
+                loadChunk(table, chunkIndex, from, to, generator);
+                return null;
+            }));
+        }
+    }
+
+    private void loadChunk(TableKind table, long chunkIndex, long from, long to,
+                           RowGenerator generator) throws SQLException {
+        long startTime = System.nanoTime();
+        SplittableRandom random = data.random(table, chunkIndex);
+        CountingSink counter;
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET SESSION foreign_key_checks = 0, unique_checks = 0");
+            }
+            RowSink sink = switch (options.mode()) {
+                case BATCH -> new BatchInsertSink(connection, table, options.batchSize());
+                case INFILE -> new LoadDataSink(connection, table,
+                        options.workDir().resolve(String.format("%s-%06d.tsv", table.table(), chunkIndex)),
+                        options.keepFiles());
+            };
+            counter = new CountingSink(sink);
+            for (long index = from; index < to; index++) {
+                generator.generate(index, random, counter);
+            }
+            counter.finish();
+            connection.commit();
+        }
+        long rows = counter.rows;
+        totalRows.addAndGet(rows);
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        System.out.printf("  %s チャンク#%d: %,d行, %.2f秒 (%,.0f行/秒)%n",
+                table.table(), chunkIndex, rows, seconds, rows / Math.max(seconds, 1e-9));
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(options.jdbcUrl(), options.username(), options.password());
+    }
+
+    private static long maxId(Connection connection, TableKind table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT COALESCE(MAX(" + table.idColumn() + "), 0) FROM " + table.table())) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * 投入後の最大IDが列の型に収まるか確認する
+     */
+    private static void checkIdCapacity(Connection connection, String table, String column,
+                                        long maxId) throws SQLException {
+        if (maxId <= SMALLINT_UNSIGNED_MAX) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT DATA_TYPE FROM information_schema.COLUMNS"
+                        + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?")) {
+            statement.setString(1, table);
+            statement.setString(2, column);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next() && "smallint".equalsIgnoreCase(resultSet.getString(1))) {
+                    throw new IllegalStateException(String.format(
+                            "%s.%s はSMALLINTのため %,d件を超えるIDを格納できません（最大ID %,d）。"
+                                    + "先に database/scripts/optional/10-expand-id-types-for-bulk-load.sql を実行してください",
+                            table, column, SMALLINT_UNSIGNED_MAX, maxId));
+                }
+            }
+        }
+    }
+
+    private static List<Long> loadIds(Connection connection, String sql) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private static void await(List<Future<?>> futures) throws InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("チャンクのロードに失敗しました: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowGenerator {
+        void generate(long index, SplittableRandom random, RowSink sink) throws SQLException;
+    }
+
+    /**
+     * 書き込んだ行数を数えるラッパー
+     */
+    private static class CountingSink implements RowSink {
+        private final RowSink delegate;
+        private long rows;
+
+        CountingSink(RowSink delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void add(Object[] row) throws SQLException {
+            delegate.add(row);
+            rows++;
+        }
+
+        @Override
+        public void finish() throws SQLException {
+            delegate.finish();
+        }
+    }
+}
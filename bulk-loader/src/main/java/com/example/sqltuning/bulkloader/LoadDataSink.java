@@ -0,0 +1,97 @@
+package com.example.sqltuning.bulkloader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * TSVファイルに書き出してから LOAD DATA LOCAL INFILE で取り込む書き込み
+ *
+ * 接続URLの allowLoadLocalInfile=true と、サーバー側の local_infile=ON が必要。
+ * NULLは \N、タブ・改行・バックスラッシュはバックスラッシュでエスケープする。
+ */
+class LoadDataSink implements RowSink {
+
+    private final Connection connection;
+    private final TableKind table;
+    private final Path file;
+    private final boolean keepFile;
+    private final BufferedWriter writer;
+
+    LoadDataSink(Connection connection, TableKind table, Path file, boolean keepFile) {
+        this.connection = connection;
+        this.table = table;
+        this.file = file;
+        this.keepFile = keepFile;
+        try {
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("ファイルを作成できません: " + file, e);
+        }
+    }
+
+    @Override
+    public void add(Object[] row) {
+        try {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write('\t');
+                }
+                writer.write(escape(row[i]));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("ファイルに書き込めません: " + file, e);
+        }
+    }
+
+    @Override
+    public void finish() throws SQLException {
+        try {
+            writer.close();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LOAD DATA LOCAL INFILE '" + file.toAbsolutePath().toString().replace("\\", "/") + "'"
+                        + " INTO TABLE " + table.table()
+                        + " CHARACTER SET utf8mb4"
+                        + " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'"
+                        + " LINES TERMINATED BY '\\n'"
+                        + " (" + String.join(", ", table.columns()) + ")");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("ファイルを閉じられません: " + file, e);
+        } finally {
+            if (!keepFile) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // 一時ファイルの削除失敗はロード結果に影響しない
+                }
+            }
+        }
+    }
+
+    private static String escape(Object value) {
+        if (value == null) {
+            return "\\N";
+        }
+        String text = value.toString();
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case '\t' -> escaped.append("\\t");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.sqltuning.bulkloader;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * コマンドライン引数（--name=value 形式）
+ *
+ * 接続先はシステムプロパティ sakila.url / sakila.username / sakila.password でも指定できる。
+ */
+record LoaderOptions(
+        String url,
+        String username,
+        String password,
+        long films,
+        long actors,
+        long customers,
+        int filmActorsPerFilm,
+        long seed,
+        int threads,
+        int chunkSize,
+        int batchSize,
+        Mode mode,
+        Path workDir,
+        boolean keepFiles) {
+
+    /**
+     * batch: rewriteBatchedStatements による複数行INSERT / infile: 生成したTSVファイルを LOAD DATA LOCAL INFILE
+     */
+    enum Mode {
+        BATCH, INFILE
+    }
+
+    private static final Set<String> KNOWN_OPTIONS = Set.of(
+            "url", "username", "password", "films", "actors", "customers", "film-actors-per-film",
+            "seed", "threads", "chunk-size", "batch-size", "mode", "work-dir", "keep-files");
+
+    private static final String DEFAULT_URL =
+            "jdbc:mysql://localhost:3306/sakila?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true";
+
+    static LoaderOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("引数は --name=value 形式で指定してください: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoaderOptions options = new LoaderOptions(
+                values.getOrDefault("url", System.getProperty("sakila.url", DEFAULT_URL)),
+                values.getOrDefault("username", System.getProperty("sakila.username", "root")),
+                values.getOrDefault("password", System.getProperty("sakila.password", "password")),
+                Long.parseLong(values.getOrDefault("films", "0")),
+                Long.parseLong(values.getOrDefault("actors", "0")),
+                Long.parseLong(values.getOrDefault("customers", "0")),
+                Integer.parseInt(values.getOrDefault("film-actors-per-film", "5")),
+                Long.parseLong(values.getOrDefault("seed", "20060215")),
+                Integer.parseInt(values.getOrDefault("threads",
+                        String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                Integer.parseInt(values.getOrDefault("chunk-size", "50000")),
+                Integer.parseInt(values.getOrDefault("batch-size", "5000")),
+                Mode.valueOf(values.getOrDefault("mode", "batch").toUpperCase(Locale.ROOT)),
+                Path.of(values.getOrDefault("work-dir", System.getProperty("java.io.tmpdir"))),
+                Boolean.parseBoolean(values.getOrDefault("keep-files", "false")));
+        values.keySet().removeAll(KNOWN_OPTIONS);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("不明な引数です: " + values.keySet());
+        }
+        return options;
+    }
+
+    /**
+     * バルクロードに必要な接続プロパティを付けたURL
+     */
+    String jdbcUrl() {
+        String separator = url.contains("?") ? "&" : "?";
+        return url + separator + "rewriteBatchedStatements=true&allowLoadLocalInfile=true";
+    }
+}
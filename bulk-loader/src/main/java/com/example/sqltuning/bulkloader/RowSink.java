@@ -0,0 +1,16 @@
+package com.example.sqltuning.bulkloader;
+
+import java.sql.SQLException;
+
+/**
+ * 1チャンク分の行の書き込み先
+ */
+interface RowSink {
+
+    void add(Object[] row) throws SQLException;
+
+    /**
+     * 残りの行を書き込む（コミットは呼び出し側）
+     */
+    void finish() throws SQLException;
+}
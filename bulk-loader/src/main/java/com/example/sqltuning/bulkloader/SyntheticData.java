@@ -0,0 +1,174 @@
+package com.example.sqltuning.bulkloader;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Sakila風の合成データ生成
+ *
+ * 乱数はシード・テーブル・チャンク番号から決まるため、同じシードと同じ開始状態のDBであれば
+ * スレッド数やチャンクの処理順に関係なく同じデータが生成される。
+ */
+final class SyntheticData {
+
+    private static final String[] TITLE_WORDS = {
+            "ACADEMY", "ACE", "ADAPTATION", "AFFAIR", "AFRICAN", "AGENT", "AIRPLANE", "ALABAMA", "ALADDIN",
+            "ALAMO", "ALASKA", "ALI", "ALIEN", "ALLEY", "AMADEUS", "AMELIE", "ANACONDA", "ANGELS", "ANNIE",
+            "ANTHEM", "ANTITRUST", "APACHE", "APOCALYPSE", "ARABIA", "ARGONAUTS", "ARMAGEDDON", "ARMY",
+            "ARTIST", "ATLANTIS", "ATTACKS", "BABY", "BACKLASH", "BADMAN", "BAKED", "BALLOON", "BANG",
+            "BANGER", "BASIC", "BEACH", "BEAR", "BEAST", "BEAUTY", "BED", "BEDAZZLED", "BEETHOVEN", "BEHAVIOR",
+            "BENEATH", "BERETS", "BETRAYED", "BEVERLY", "BIKINI", "BILKO", "BIRCH", "BIRD", "BIRDS", "BLADE",
+            "BLANKET", "BLINDNESS", "BLOOD", "BLUES", "BOILED", "BONNIE", "BOOGIE", "BOONDOCK", "BORN",
+            "BOUND", "BOWFINGER", "BRANNIGAN", "BRAVEHEART", "BREAKFAST", "BREAKING", "BRIDE", "BRIGHT",
+            "BRINGING", "BROOKLYN", "BROTHERHOOD", "BUBBLE", "BUCKET", "BUGSY", "BULL", "BULWORTH", "BUNCH",
+            "BUTCH", "BUTTERFLY", "CABIN", "CADDYSHACK", "CALENDAR", "CALIFORNIA", "CAMELOT", "CAMPUS",
+            "CANDIDATE", "CANDLES", "CANYON", "CAPER", "CARIBBEAN", "CAROL", "CARRIE", "CASABLANCA", "CASPER",
+            "CASSIDY", "CASUALTIES", "CAT", "CATCH", "CAUSE", "CELEBRITY", "CENTER", "CHAINSAW", "CHAMBER"
+    };
+    private static final String[] ADJECTIVES = {
+            "Epic", "Astounding", "Fateful", "Insightful", "Touching", "Thoughtful", "Beautiful", "Emotional",
+            "Stunning", "Action-Packed", "Intrepid", "Boring", "Awe-Inspiring", "Brilliant", "Taut", "Unbelieveable"
+    };
+    private static final String[] NOUNS = {
+            "Drama", "Story", "Documentary", "Panorama", "Saga", "Reflection", "Tale", "Yarn", "Epistle",
+            "Character Study", "Display", "Mystery", "Dog", "Cat", "Feminist", "Technical Writer", "Database Administrator",
+            "Mad Scientist", "Girl", "Boy", "Moose", "Crocodile", "Astronaut", "Monkey", "Hunter", "Pioneer"
+    };
+    private static final String[] VERBS = {
+            "Battle", "Chase", "Defeat", "Discover", "Find", "Fight", "Kill", "Meet", "Outgun", "Outrace",
+            "Overcome", "Pursue", "Reach", "Redeem", "Sink", "Succumb", "Build", "Face", "Conquer", "Vanquish"
+    };
+    private static final String[] PLACES = {
+            "Ancient China", "Ancient India", "A Baloon", "A Jet Boat", "A Manhattan Penthouse", "A MySQL Convention",
+            "A Shark Tank", "Berlin", "Nigeria", "Soviet Georgia", "The Canadian Rockies", "The Gulf of Mexico",
+            "The Outback", "The Sahara Desert", "The First Manned Space Station", "An Abandoned Mine Shaft"
+    };
+    private static final String[] FIRST_NAMES = {
+            "PENELOPE", "NICK", "ED", "JENNIFER", "JOHNNY", "BETTE", "GRACE", "MATTHEW", "JOE", "CHRISTIAN",
+            "ZERO", "KARL", "UMA", "VIVIEN", "CUBA", "FRED", "HELEN", "DAN", "BOB", "LUCILLE", "KIRSTEN",
+            "ELVIS", "SANDRA", "CAMERON", "KEVIN", "RIP", "JULIA", "WOODY", "ALEC", "SISSY", "TIM", "MILLA",
+            "AUDREY", "JUDY", "BURT", "VAL", "TOM", "GOLDIE", "JODIE", "KENNETH", "MICHELLE", "ADAM", "SEAN",
+            "GARY", "DUSTIN", "HENRY", "GINA", "WARREN", "ANGELA", "CATE", "SPENCER", "MARY", "LISA", "PATRICIA"
+    };
+    private static final String[] LAST_NAMES = {
+            "GUINESS", "WAHLBERG", "CHASE", "DAVIS", "LOLLOBRIGIDA", "NICHOLSON", "MOSTEL", "JOHANSSON",
+            "SWANK", "GABLE", "CAGE", "BERRY", "WOOD", "BERGEN", "OLIVIER", "COSTNER", "VOIGHT", "TORN",
+            "FAWCETT", "TRACY", "PALTROW", "MARX", "KILMER", "STREEP", "BLOOM", "CRAWFORD", "MCQUEEN",
+            "HOFFMAN", "WRAY", "JOHANSSON", "DEPP", "HOPKINS", "DEGENERES", "DENCH", "HACKMAN", "WILLIAMS",
+            "SMITH", "JOHNSON", "BROWN", "JONES", "GARCIA", "MILLER", "MARTINEZ", "ANDERSON", "TAYLOR", "THOMAS"
+    };
+    private static final String[] RATINGS = {"G", "PG", "PG-13", "R", "NC-17"};
+    private static final String[] SPECIAL_FEATURES = {"Trailers", "Commentaries", "Deleted Scenes", "Behind the Scenes"};
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2006, 2, 14, 22, 4, 36);
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final long seed;
+
+    SyntheticData(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * テーブルとチャンク番号ごとに独立した乱数列
+     */
+    SplittableRandom random(TableKind table, long chunkIndex) {
+        long mixed = seed;
+        mixed = mixed * 0x9E3779B97F4A7C15L + table.ordinal();
+        mixed = mixed * 0x9E3779B97F4A7C15L + chunkIndex;
+        return new SplittableRandom(mixed);
+    }
+
+    /**
+     * film: film_id, title, description, release_year, language_id, rental_duration, rental_rate,
+     * length, replacement_cost, rating, special_features
+     */
+    Object[] film(long filmId, SplittableRandom random) {
+        String title = pick(TITLE_WORDS, random) + " " + pick(TITLE_WORDS, random);
+        String description = "A " + pick(ADJECTIVES, random) + " " + pick(NOUNS, random)
+                + " of a " + pick(NOUNS, random) + " And a " + pick(NOUNS, random)
+                + " who must " + pick(VERBS, random) + " a " + pick(NOUNS, random)
+                + " in " + pick(PLACES, random);
+        return new Object[]{
+                filmId,
+                title,
+                description,
+                1990 + random.nextInt(35),
+                1,
+                3 + random.nextInt(5),
+                new BigDecimal(new String[]{"0.99", "2.99", "4.99"}[random.nextInt(3)]),
+                46 + random.nextInt(140),
+                BigDecimal.valueOf(999 + random.nextInt(2001), 2),
+                pick(RATINGS, random),
+                specialFeatures(random)
+        };
+    }
+
+    /**
+     * actor: actor_id, first_name, last_name
+     */
+    Object[] actor(long actorId, SplittableRandom random) {
+        return new Object[]{actorId, pick(FIRST_NAMES, random), pick(LAST_NAMES, random)};
+    }
+
+    /**
+     * customer: customer_id, store_id, first_name, last_name, email, address_id, active, create_date
+     */
+    Object[] customer(long customerId, int[] addressIds, SplittableRandom random) {
+        String firstName = pick(FIRST_NAMES, random);
+        String lastName = pick(LAST_NAMES, random);
+        String email = (firstName + "." + lastName + "." + customerId).toLowerCase(Locale.ROOT) + "@sakilacustomer.org";
+        return new Object[]{
+                customerId,
+                1 + random.nextInt(2),
+                firstName,
+                lastName,
+                email,
+                addressIds[random.nextInt(addressIds.length)],
+                random.nextInt(100) < 97 ? 1 : 0,
+                BASE_DATE.plusMinutes(random.nextLong(60L * 24 * 365 * 15)).format(DATE_TIME)
+        };
+    }
+
+    /**
+     * 1本の映画の出演者（重複しないactor_idを、平均perFilm人）
+     */
+    long[] filmActors(long[] actorIds, int perFilm, SplittableRandom random) {
+        int count = Math.min(actorIds.length, Math.max(1, perFilm / 2 + random.nextInt(perFilm + 1)));
+        long[] chosen = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            long candidate = actorIds[random.nextInt(actorIds.length)];
+            boolean duplicate = false;
+            for (int i = 0; i < filled; i++) {
+                if (chosen[i] == candidate) {
+                    duplicate = true;
+                    break;
+                }
+            }
+            if (!duplicate) {
+                chosen[filled++] = candidate;
+            }
+        }
+        return chosen;
+    }
+
+    private static String specialFeatures(SplittableRandom random) {
+        StringBuilder features = new StringBuilder();
+        for (String feature : SPECIAL_FEATURES) {
+            if (random.nextBoolean()) {
+                if (!features.isEmpty()) {
+                    features.append(',');
+                }
+                features.append(feature);
+            }
+        }
+        return features.isEmpty() ? null : features.toString();
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.sqltuning.bulkloader;
+
+import java.util.List;
+
+/**
+ * ロード対象のテーブルと列（last_updateはDEFAULT CURRENT_TIMESTAMPに任せる）
+ */
+enum TableKind {
+    ACTOR("actor", "actor_id", List.of("actor_id", "first_name", "last_name")),
+    FILM("film", "film_id", List.of("film_id", "title", "description", "release_year", "language_id",
+            "rental_duration", "rental_rate", "length", "replacement_cost", "rating", "special_features")),
+    CUSTOMER("customer", "customer_id", List.of("customer_id", "store_id", "first_name", "last_name",
+            "email", "address_id", "active", "create_date")),
+    FILM_ACTOR("film_actor", null, List.of("actor_id", "film_id"));
+
+    private final String table;
+    private final String idColumn;
+    private final List<String> columns;
+
+    TableKind(String table, String idColumn, List<String> columns) {
+        this.table = table;
+        this.idColumn = idColumn;
+        this.columns = columns;
+    }
+
+    String table() {
+        return table;
+    }
+
+    String idColumn() {
+        return idColumn;
+    }
+
+    List<String> columns() {
+        return columns;
+    }
+}
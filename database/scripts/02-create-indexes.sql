@@ -49,6 +49,13 @@ CREATE INDEX idx_customer_active ON customer(active);
 CREATE INDEX idx_film_language_year ON film(language_id, release_year);
 CREATE INDEX idx_customer_store_active ON customer(store_id, active);
 
+-- 一覧APIのETag（TableVersionService）用
+-- MAX(last_update) をインデックスの末尾1件の参照で求める（EXPLAIN: Select tables optimized away）
+-- COUNT(*) は最も小さいセカンダリインデックスの全件スキャンのまま（行数に比例する）
+CREATE INDEX idx_film_last_update ON film(last_update);
+CREATE INDEX idx_actor_last_update ON actor(last_update);
+CREATE INDEX idx_customer_last_update ON customer(last_update);
+
 -- ============================================================
 -- パフォーマンス確認用のクエリサンプル
 -- ============================================================
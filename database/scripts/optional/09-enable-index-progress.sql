@@ -0,0 +1,27 @@
+-- ============================================================
+-- オンラインDDLの進捗計測を有効化
+-- /api/indexes のジョブ進捗（progressPercent）を表示するために使用
+-- ============================================================
+-- performance_schemaのステージイベントはデフォルトで一部が無効のため、
+-- InnoDBのALTER TABLEのステージと、現在のステージを記録するコンシューマーを有効化する。
+-- サーバー再起動で元に戻るため、恒久的に有効にする場合は my.cnf に
+--   performance-schema-instrument='stage/innodb/alter%=ON'
+--   performance-schema-consumer-events-stages-current=ON
+-- を追加する。
+
+UPDATE performance_schema.setup_instruments
+SET ENABLED = 'YES', TIMED = 'YES'
+WHERE NAME LIKE 'stage/innodb/alter%';
+
+UPDATE performance_schema.setup_consumers
+SET ENABLED = 'YES'
+WHERE NAME LIKE 'events_stages_%';
+
+-- 確認
+SELECT NAME, ENABLED, TIMED
+FROM performance_schema.setup_instruments
+WHERE NAME LIKE 'stage/innodb/alter%';
+
+SELECT NAME, ENABLED
+FROM performance_schema.setup_consumers
+WHERE NAME LIKE 'events_stages_%';
@@ -0,0 +1,34 @@
+-- ============================================
+-- バルクローダー（bulk-loader）で65,535件を超えるデータを投入するための型変更
+-- ============================================
+-- actor_id / film_id / customer_id は SMALLINT UNSIGNED（最大65,535）のため、
+-- 本番規模（数百万〜数千万行）のデータを投入する前に INT UNSIGNED に変更する。
+-- 04-expand-film-id-type.sql を実行済みでも、このスクリプトを実行して問題ありません。
+-- ============================================
+
+USE sakila;
+
+-- 外部キー制約を一時的に無効化
+SET FOREIGN_KEY_CHECKS = 0;
+
+-- film_actorテーブル（actor・filmを参照する側）のカラムを変更
+ALTER TABLE film_actor
+  MODIFY COLUMN actor_id INT UNSIGNED NOT NULL,
+  MODIFY COLUMN film_id INT UNSIGNED NOT NULL;
+
+-- actorテーブルのactor_idカラムを変更
+ALTER TABLE actor
+  MODIFY COLUMN actor_id INT UNSIGNED NOT NULL AUTO_INCREMENT;
+
+-- filmテーブルのfilm_idカラムを変更
+ALTER TABLE film
+  MODIFY COLUMN film_id INT UNSIGNED NOT NULL AUTO_INCREMENT;
+
+-- customerテーブルのcustomer_idカラムを変更
+ALTER TABLE customer
+  MODIFY COLUMN customer_id INT UNSIGNED NOT NULL AUTO_INCREMENT;
+
+-- 外部キー制約を再有効化
+SET FOREIGN_KEY_CHECKS = 1;
+
+SELECT 'actor_id / film_id / customer_id をINT UNSIGNEDに変更しました。最大値: 4,294,967,295' AS Status;
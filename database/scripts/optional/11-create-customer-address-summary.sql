@@ -0,0 +1,89 @@
+-- ============================================================
+-- 顧客＋住所のサマリーテーブル（非正規化した読み取り用モデル）
+-- /api/customers/with-address/summary で使用
+-- ============================================================
+-- customer・address・city・country の4テーブルJOINの結果を保持する。
+-- 内容はアプリケーションが last_update のウォーターマークで差分更新する
+-- （初回は全件、以降は前回の更新以降に変更された顧客だけをUPSERTし、削除された顧客を取り除く）。
+-- 削除はcustomerのDELETEトリガーが customer_tombstone に記録し、同じウォーターマークで取り込む。
+-- 作成後、POST /api/customers/with-address/summary/refresh で初回の投入を行う。
+
+USE sakila;
+
+DROP TABLE IF EXISTS customer_address_summary;
+CREATE TABLE customer_address_summary (
+    customer_id INT UNSIGNED NOT NULL,
+    store_id TINYINT UNSIGNED,
+    first_name VARCHAR(45) NOT NULL,
+    last_name VARCHAR(45) NOT NULL,
+    email VARCHAR(50),
+    address_id INT UNSIGNED,
+    active TINYINT(1) NOT NULL,
+    create_date DATETIME NOT NULL,
+    last_update TIMESTAMP NULL,
+    address VARCHAR(50),
+    city VARCHAR(50),
+    country VARCHAR(50),
+    -- 元になった4テーブルのlast_updateの最大値
+    source_updated_at TIMESTAMP NULL,
+    refreshed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (customer_id),
+    -- 国で絞り込んだ一覧（JOINなしで索引のレンジスキャンになる）
+    INDEX idx_summary_country (country, customer_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 差分更新のウォーターマーク（読み取りモデルごとに1行）
+CREATE TABLE IF NOT EXISTS read_model_watermark (
+    name VARCHAR(64) NOT NULL,
+    watermark TIMESTAMP NOT NULL,
+    refreshed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- テーブルを作り直したので、次回の更新は全件から行う
+DELETE FROM read_model_watermark WHERE name = 'customer_address_summary';
+
+-- 削除された顧客の記録（トゥームストーン）
+-- 差分更新で deleted_at >= ウォーターマーク の行だけをサマリーから削除し、取り込み済みの行は消す
+DROP TRIGGER IF EXISTS customer_tombstone_after_delete;
+DROP TABLE IF EXISTS customer_tombstone;
+CREATE TABLE customer_tombstone (
+    customer_id INT UNSIGNED NOT NULL,
+    deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (customer_id),
+    INDEX idx_tombstone_deleted_at (deleted_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+DELIMITER //
+
+CREATE TRIGGER customer_tombstone_after_delete
+AFTER DELETE ON customer
+FOR EACH ROW
+BEGIN
+    INSERT INTO customer_tombstone (customer_id)
+    VALUES (OLD.customer_id)
+    ON DUPLICATE KEY UPDATE deleted_at = CURRENT_TIMESTAMP;
+END//
+
+DELIMITER ;
+
+-- 差分の抽出（last_update >= ウォーターマーク）でインデックスを使う
+-- 存在しない場合だけ作成する（customerは02-create-indexes.sqlで作成済みのことが多く、
+-- CREATE INDEXの重複エラーでmysqlクライアントが止まると以降の行が実行されないため）
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'address'
+                 AND INDEX_NAME = 'idx_address_last_update') = 0,
+              'CREATE INDEX idx_address_last_update ON address(last_update)',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'customer'
+                 AND INDEX_NAME = 'idx_customer_last_update') = 0,
+              'CREATE INDEX idx_customer_last_update ON customer(last_update)',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,82 @@
+-- ============================================================
+-- 映画ごとの出演者数の集計テーブル（トリガーで差分更新）
+-- /api/films/complex/precomputed で使用
+-- ============================================================
+-- film_actorへのINSERT/UPDATE/DELETEのたびにトリガーで actor_count を増減するため、
+-- 検索時に film_actor を COUNT / GROUP BY する必要がなくなる。
+-- 出演者が0人になった映画の行は削除する（行が存在する = 出演者がいる）。
+--
+-- このスクリプトは再実行できる（テーブルを作り直して現在のfilm_actorから集計し直す）。
+-- 集計とトリガー作成の間にfilm_actorが更新されると件数がずれるため、更新のない状態で実行すること。
+-- バルクローダーなどで大量に投入する場合もトリガーは1行ずつ動作する。
+-- 投入が遅くなる場合は投入後にこのスクリプトを再実行して集計し直してもよい。
+
+USE sakila;
+
+DROP TRIGGER IF EXISTS film_actor_stats_after_insert;
+DROP TRIGGER IF EXISTS film_actor_stats_after_update;
+DROP TRIGGER IF EXISTS film_actor_stats_after_delete;
+
+DROP TABLE IF EXISTS film_actor_stats;
+CREATE TABLE film_actor_stats (
+    film_id INT UNSIGNED NOT NULL,
+    actor_count INT UNSIGNED NOT NULL,
+    last_update TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (film_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 初期集計（バックフィル）
+INSERT INTO film_actor_stats (film_id, actor_count)
+SELECT film_id, COUNT(*)
+FROM film_actor
+GROUP BY film_id;
+
+DELIMITER //
+
+CREATE TRIGGER film_actor_stats_after_insert
+AFTER INSERT ON film_actor
+FOR EACH ROW
+BEGIN
+    INSERT INTO film_actor_stats (film_id, actor_count)
+    VALUES (NEW.film_id, 1)
+    ON DUPLICATE KEY UPDATE actor_count = actor_count + 1;
+END//
+
+CREATE TRIGGER film_actor_stats_after_delete
+AFTER DELETE ON film_actor
+FOR EACH ROW
+BEGIN
+    UPDATE film_actor_stats
+    SET actor_count = actor_count - 1
+    WHERE film_id = OLD.film_id;
+
+    DELETE FROM film_actor_stats
+    WHERE film_id = OLD.film_id AND actor_count = 0;
+END//
+
+-- 別の映画に付け替えた場合のみ、元の映画を減らして新しい映画を増やす
+CREATE TRIGGER film_actor_stats_after_update
+AFTER UPDATE ON film_actor
+FOR EACH ROW
+BEGIN
+    IF NEW.film_id <> OLD.film_id THEN
+        UPDATE film_actor_stats
+        SET actor_count = actor_count - 1
+        WHERE film_id = OLD.film_id;
+
+        DELETE FROM film_actor_stats
+        WHERE film_id = OLD.film_id AND actor_count = 0;
+
+        INSERT INTO film_actor_stats (film_id, actor_count)
+        VALUES (NEW.film_id, 1)
+        ON DUPLICATE KEY UPDATE actor_count = actor_count + 1;
+    END IF;
+END//
+
+DELIMITER ;
+
+-- 確認（film_actorの集計と一致すること）
+SELECT
+    (SELECT COUNT(*) FROM film_actor_stats) AS films_with_actors,
+    (SELECT SUM(actor_count) FROM film_actor_stats) AS total_actor_count,
+    (SELECT COUNT(*) FROM film_actor) AS film_actor_rows;
@@ -1,5 +1,5 @@
 import React, { useState } from 'react';
-import { filmAPI, actorAPI, customerAPI } from '../services/api';
+import { filmAPI, actorAPI, customerAPI, indexAPI } from '../services/api';
 import './Dashboard.css';
 
 function Dashboard({ onLogout }) {
@@ -116,11 +116,28 @@ function Dashboard({ onLogout }) {
   };
 
   // インデックス管理ハンドラー
+  // DDLはサーバー側の非同期ジョブで実行されるため、完了（または失敗）するまでジョブの状態を確認する
+  const waitForIndexJob = async (jobId) => {
+    for (;;) {
+      const response = await indexAPI.getJob(jobId);
+      const job = response.data;
+      if (job.status === 'COMPLETED' || job.status === 'FAILED') {
+        return job;
+      }
+      await new Promise((resolve) => setTimeout(resolve, 1000));
+    }
+  };
+
   const handleCreateTitleIndex = async () => {
     setLoading(true);
     try {
-      await filmAPI.createTitleIndex();
-      alert('インデックスを作成しました');
+      const response = await filmAPI.createTitleIndex();
+      const job = await waitForIndexJob(response.data.jobId);
+      if (job.status === 'COMPLETED') {
+        alert('インデックスを作成しました');
+      } else {
+        alert(`インデックスの作成に失敗しました: ${job.error}`);
+      }
     } catch (error) {
       console.error('Index creation error:', error);
       alert('インデックスの作成に失敗しました');
@@ -132,8 +149,13 @@ function Dashboard({ onLogout }) {
   const handleDropTitleIndex = async () => {
     setLoading(true);
     try {
-      await filmAPI.dropTitleIndex();
-      alert('インデックスを削除しました');
+      const response = await filmAPI.dropTitleIndex();
+      const job = await waitForIndexJob(response.data.jobId);
+      if (job.status === 'COMPLETED') {
+        alert('インデックスを削除しました');
+      } else {
+        alert(`インデックスの削除に失敗しました: ${job.error}`);
+      }
     } catch (error) {
       console.error('Index deletion error:', error);
       alert('インデックスの削除に失敗しました');
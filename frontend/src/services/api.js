@@ -58,11 +58,16 @@ export const filmAPI = {
   getFilmsComplexSlow: (minLength) => api.get('/films/complex/slow', { params: { minLength } }),
   getFilmsComplexFast: (minLength) => api.get('/films/complex/fast', { params: { minLength } }),
 
-  // インデックス管理API
+  // インデックス管理API（非同期ジョブを登録し、ジョブの状態を返す）
   createTitleIndex: () => api.post('/films/index/title/create'),
   dropTitleIndex: () => api.delete('/films/index/title/delete'),
 };
 
+// インデックスジョブAPI
+export const indexAPI = {
+  getJob: (jobId) => api.get(`/indexes/jobs/${jobId}`),
+};
+
 // 俳優API
 export const actorAPI = {
   getAllActors: () => api.get('/actors'),